@@ -22,12 +22,31 @@ tasks.jar {
   }
 }
 
+repositories {
+  mavenCentral()
+}
+
+dependencies {
+  testImplementation(platform("org.junit:junit-bom:5.10.2"))
+  testImplementation("org.junit.jupiter:junit-jupiter")
+  testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
 sourceSets {
   main {
     java {
       srcDirs("src")
     }
   }
+  test {
+    java {
+      srcDirs("test")
+    }
+  }
+}
+
+tasks.test {
+  useJUnitPlatform()
 }
 
 fun getProp(key: String, default: String): String {
@@ -0,0 +1,57 @@
+package org.adligo.bytes.jvm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * A periodic Java Flight Recorder event with a snapshot
+ * of the {@link JvmBytesMetrics} counters.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+@Name("org.adligo.bytes.BytesMetrics")
+@Label("Bytes Metrics")
+@Category("Adligo")
+@Description("Chunk, copy, share, BigBytes shape and pool counters from org.adligo.bytes")
+@Period("1 s")
+@StackTrace(false)
+public class BytesMetricsEvent extends jdk.jfr.Event {
+  @Label("BigBytes Max Dimensions")
+  long bigBytesMaxDimensions;
+  @Label("BigBytes Max Leaf Count")
+  long bigBytesMaxLeafCount;
+  @Label("Bytes Copied")
+  long bytesCopied;
+  @Label("Bytes Shared")
+  long bytesShared;
+  @Label("Chunks Allocated")
+  long chunksAllocated;
+  @Label("Chunks Recycled")
+  long chunksRecycled;
+  @Label("Pool Hits")
+  long poolHits;
+  @Label("Pool Misses")
+  long poolMisses;
+}
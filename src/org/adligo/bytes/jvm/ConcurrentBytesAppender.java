@@ -0,0 +1,311 @@
+package org.adligo.bytes.jvm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.adligo.bytes.shared.Bytes;
+import org.adligo.bytes.shared.BytesMetrics;
+import org.adligo.bytes.shared.BytesView;
+import org.adligo.bytes.shared.I_BytesMetricsListener;
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a lock free, multiple producer single consumer, log buffer
+ * built from chunks like the BytesMutant.  Each append is a record, which 
+ * is reserved by a compare and set of the tail, then written 
+ * without locks (spilling into new chunks which are published with a 
+ * compare and set), and finally committed by writing it's length header
+ * with release semantics.  The consumer only sees committed records, 
+ * in the order they were reserved. <br/>
+ *   The reservation is a compare and set loop instead of a single atomic 
+ * increment, because the full check must happen before the tail moves, 
+ * an increment past a full ring would reserve positions in chunks which
+ * are NOT consumed yet, and nothing could be written there to skip them.
+ * The compare and set only fails when another producer reserved first, so 
+ * some producer always makes progress, and each retry is a single read 
+ * of the tail and the head. <br/>
+ *   Each record is a 4 byte little endian header (the length of the record 
+ * including the header) followed by the bytes, aligned to 4 bytes so 
+ * that headers never span chunks.  The chunks are a ring of arraysSize slots,
+ * so at most arraysSize * chunkSize bytes are unconsumed at any time.  
+ * A slot is only reused once the consumer has moved past all of it's chunk,
+ * and the consumer may be part way through a chunk, so only records up to 
+ * (arraysSize - 1) * chunkSize bytes (see {@link #getMaxRecordSize()}) 
+ * always fit once the consumer has caught up.
+ * Once the consumer moves past a chunk it's slot is emptied, and the next 
+ * producer to reach the slot publishes a new chunk, so the records that were 
+ * already consumed are never overwritten.  When the unconsumed records fill
+ * the ring append throws a IllegalStateException without reserving anything,
+ * so it may be retried after the consumer polls, records which are bigger 
+ * than the max record size can never fit and throw a IllegalArgumentException. <br/>
+ *   When a record can NOT be written after it is reserved (i.e. the I_Bytes
+ * throws) a negative skip header is committed instead, which the consumer 
+ * steps over, so the later records are NOT stuck behind it.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class ConcurrentBytesAppender {
+  public static final String CHUNK_SIZE_EXCEPTION = 
+      "The chunkSize MUST be a positive multiple of 4, not ";
+  public static final String ARRAYS_SIZE_EXCEPTION = "The arraysSize MUST be at least 2, not ";
+  public static final String FULL_EXCEPTION = "The appender is full, it can NOT reserve ";
+  public static final String TOO_BIG_EXCEPTION_1 = "The record of ";
+  public static final String TOO_BIG_EXCEPTION_2 = " bytes can never fit, the max record size is ";
+  public static final int HEADER_SIZE = 4;
+  private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(
+      int[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private final long capacity;
+  private final int chunkSize;
+  private final long maxRecordSize;
+  private final AtomicReferenceArray<byte[]> chunks;
+  /**
+   * The position of the next record to consume, only changed by the consumer
+   * with release semantics, after the slots before it are emptied.
+   */
+  private final AtomicLong head = new AtomicLong();
+  /**
+   * The position of the next record to reserve, positions only grow 
+   * and are mapped to the slots of the ring.
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  /**
+   * 
+   * @param arraysSize the number of chunk slots in the ring
+   * @param chunkSize the size of each chunk, which MUST be a multiple of 4
+   */
+  public ConcurrentBytesAppender(int arraysSize, int chunkSize) {
+    if (arraysSize < 2) {
+      throw new IllegalArgumentException(ARRAYS_SIZE_EXCEPTION + arraysSize);
+    }
+    if (chunkSize < HEADER_SIZE || chunkSize % HEADER_SIZE != 0) {
+      throw new IllegalArgumentException(CHUNK_SIZE_EXCEPTION + chunkSize);
+    }
+    this.capacity = ((long) arraysSize) * chunkSize;
+    this.chunkSize = chunkSize;
+    this.maxRecordSize = ((long) arraysSize - 1) * chunkSize;
+    this.chunks = new AtomicReferenceArray<byte[]>(arraysSize);
+  }
+
+  /**
+   * Appends a record, this may be called by any thread.
+   * @param bytes
+   * @param start
+   * @param end
+   * @throws IllegalStateException if the unconsumed records fill the appender, 
+   *   in which case nothing is appended
+   * @throws IllegalArgumentException if the record is bigger than the max record size
+   * @throws ArrayIndexOutOfBoundsException if the range is NOT in the bytes
+   */
+  public void append(byte[] bytes, int start, int end) {
+    if (start < 0 || end < start || end > bytes.length) {
+      throw new ArrayIndexOutOfBoundsException(start < 0 ? start : end);
+    }
+    int length = end - start;
+    long position = reserve(length);
+    boolean written = false;
+    try {
+      long p = position + HEADER_SIZE;
+      while (start < end) {
+        int offset = (int) (p % chunkSize);
+        int n = Math.min(end - start, chunkSize - offset);
+        System.arraycopy(bytes, start, chunk(p), offset, n);
+        start += n;
+        p += n;
+      }
+      written = true;
+    } finally {
+      commit(position, length, written);
+    }
+  }
+
+  /**
+   * Appends a record, this may be called by any thread.
+   * @param bytes
+   * @throws IllegalStateException if the unconsumed records fill the appender, 
+   *   in which case nothing is appended
+   * @throws IllegalArgumentException if the record is bigger than the max record size
+   */
+  public void append(I_Bytes bytes) {
+    int length = bytes.size();
+    long position = reserve(length);
+    boolean written = false;
+    try {
+      long p = position + HEADER_SIZE;
+      int start = 0;
+      while (start < length) {
+        int offset = (int) (p % chunkSize);
+        int n = Math.min(length - start, chunkSize - offset);
+        Bytes.copy(bytes, start, chunk(p), offset, n);
+        start += n;
+        p += n;
+      }
+      written = true;
+    } finally {
+      commit(position, length, written);
+    }
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * 
+   * @return the size of the biggest record that always fits 
+   *   once the consumer has caught up, (arraysSize - 1) * chunkSize.
+   */
+  public long getMaxRecordSize() {
+    return maxRecordSize;
+  }
+
+  /**
+   * Passes each committed record to the consumer, which MUST be called 
+   * from a single consumer thread.  The records share the chunks, they are NOT
+   * copied.  Records which failed to be written are skipped.
+   * @param consumer
+   * @return the number of records consumed
+   */
+  public int poll(Consumer<I_Bytes> consumer) {
+    int r = 0;
+    long h = head.get();
+    while (true) {
+      byte[] chunk = chunks.get(slot(h));
+      if (chunk == null) {
+        return r;
+      }
+      int recordLength = (int) INT.getAcquire(chunk, (int) (h % chunkSize));
+      if (recordLength == 0) {
+        return r;
+      }
+      boolean skip = recordLength < 0;
+      if (skip) {
+        recordLength = -recordLength;
+      }
+      I_Bytes record = skip ? null : view(h + HEADER_SIZE, recordLength - HEADER_SIZE);
+      long next = h + align(recordLength);
+      //empty the slots before publishing the head, so producers can't reuse them
+      for (long i = h / chunkSize; i < next / chunkSize; i++) {
+        chunks.set(slot(i * chunkSize), null);
+      }
+      h = next;
+      head.setRelease(h);
+      if (!skip) {
+        consumer.accept(record);
+        r++;
+      }
+    }
+  }
+
+  private static long align(long length) {
+    return (length + HEADER_SIZE - 1) & ~((long) HEADER_SIZE - 1);
+  }
+
+  /**
+   * 
+   * @param position
+   * @return the chunk for the position, publishing a new chunk if it is needed
+   */
+  private byte[] chunk(long position) {
+    int index = slot(position);
+    byte[] r = chunks.get(index);
+    if (r == null) {
+      byte[] c = new byte[chunkSize];
+      if (chunks.compareAndSet(index, null, c)) {
+        I_BytesMetricsListener listener = BytesMetrics.getListener();
+        if (listener != null) {
+          listener.onChunkAllocated(chunkSize);
+        }
+        r = c;
+      } else {
+        r = chunks.get(index);
+      }
+    }
+    return r;
+  }
+
+  /**
+   * 
+   * @param position
+   * @param length
+   * @param written false to commit a skip header, 
+   *   which is the negative length of the record.
+   */
+  private void commit(long position, int length, boolean written) {
+    int header = HEADER_SIZE + length;
+    INT.setRelease(chunk(position), (int) (position % chunkSize), 
+        written ? header : -header);
+  }
+
+  /**
+   * Reserves the record with a compare and set loop, which only retries 
+   * when another producer reserved first.
+   * @param length the length of the record without the header
+   * @return the position of the record's header
+   * @throws IllegalStateException if the unconsumed records fill the appender
+   */
+  private long reserve(int length) {
+    if (length > maxRecordSize) {
+      throw new IllegalArgumentException(TOO_BIG_EXCEPTION_1 + length + 
+          TOO_BIG_EXCEPTION_2 + maxRecordSize);
+    }
+    long recordLength = align(HEADER_SIZE + (long) length);
+    while (true) {
+      long position = tail.get();
+      //a slot is only reused after the consumer has moved past all of it's chunk
+      if ((position + recordLength - 1) / chunkSize >= 
+          head.getAcquire() / chunkSize + chunks.length()) {
+        throw new IllegalStateException(FULL_EXCEPTION + length);
+      }
+      if (tail.compareAndSet(position, position + recordLength)) {
+        return position;
+      }
+    }
+  }
+
+  private int slot(long position) {
+    return (int) ((position / chunkSize) % chunks.length());
+  }
+
+  private I_Bytes view(long position, int length) {
+    if (length == 0) {
+      return Bytes.EMPTY;
+    }
+    int offset = (int) (position % chunkSize);
+    if (offset + length <= chunkSize) {
+      return new BytesView(chunks.get(slot(position)), offset, offset + length);
+    }
+    I_Bytes[] parts = new I_Bytes[(offset + length + chunkSize - 1) / chunkSize];
+    for (int i = 0; i < parts.length; i++) {
+      int end = Math.min(chunkSize, offset + length);
+      parts[i] = new BytesView(chunks.get(slot(position + ((long) i) * chunkSize)), 
+          offset, end);
+      length -= end - offset;
+      offset = 0;
+    }
+    return Bytes.concat(parts);
+  }
+}
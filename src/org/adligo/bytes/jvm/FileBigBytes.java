@@ -0,0 +1,319 @@
+package org.adligo.bytes.jvm;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.adligo.bytes.shared.AbstractBigBytes;
+import org.adligo.bytes.shared.BlockCodec;
+import org.adligo.bytes.shared.BytesMetrics;
+import org.adligo.bytes.shared.BytesView;
+import org.adligo.bytes.shared.I_BytesMetricsListener;
+import org.adligo.bytes.shared.LeafCache;
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class provides a immutable fixed size collection of bytes
+ * which is stored in a file, and read one leaf at a time on demand.
+ * The file is written by {@link #write(AbstractBigBytes, Path, boolean)}
+ * with the following format (all numbers are big endian);
+ * <pre><code>
+ * leaves   the stored leaves one after another, holes are NOT stored
+ * index    for each leaf a long offset and a int stored length,
+ *          where the stored length is -1 for holes
+ * trailer  long index offset, long size, int leaf size, int fan out,
+ *          int flags, int version, long magic
+ * </code></pre>
+ * Opening a file only reads the trailer and memory maps the index, so it 
+ * takes about the same time for any size of file.  Leaves are read with 
+ * positional FileChannel reads (which are thread safe) into a small 
+ * least recently used page cache.  When the file is compressed leaves 
+ * are stored with the {@link BlockCodec}, unless that would NOT make 
+ * them smaller. <br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class FileBigBytes extends AbstractBigBytes implements Closeable {
+  public static final int DEFAULT_CACHE_SIZE = 64;
+  /**
+   * The flag for files with compressed leaves.
+   */
+  public static final int FLAG_COMPRESSED = 1;
+  public static final String LEAF_COUNT_EXCEPTION = "The leaf count MUST fit in the index, not ";
+  public static final long MAGIC = 0x4164426967427974L;
+  public static final String NOT_A_BIG_BYTES_FILE = "The file is NOT a BigBytes file ";
+  public static final int VERSION = 1;
+  /**
+   * The size of a index entry, a long offset and a int stored length.
+   */
+  private static final int INDEX_ENTRY_SIZE = 12;
+  /**
+   * The maximum leaf count, so that the index fits in one MappedByteBuffer.
+   */
+  private static final long MAX_LEAF_COUNT = Integer.MAX_VALUE / INDEX_ENTRY_SIZE;
+  private static final int TRAILER_SIZE = 40;
+
+  /**
+   * The contents of the trailer, and the open channel.
+   */
+  private static final class Trailer {
+    private FileChannel channel;
+    private int fanOut;
+    private int flags;
+    private MappedByteBuffer index;
+    private int leafSize;
+    private long size;
+  }
+
+  /**
+   * The least recently used leaves.
+   */
+  private final LeafCache cache;
+  private final FileChannel channel;
+  private final boolean compressed;
+  private final MappedByteBuffer index;
+  private final long size;
+
+  /**
+   * Writes the bytes to the file, replacing the file if it exists.
+   * @param bytes
+   * @param path
+   * @param compress true to compress the leaves with the {@link BlockCodec}
+   * @throws IOException
+   */
+  public static void write(AbstractBigBytes bytes, Path path, boolean compress) throws IOException {
+    long leafCount = bytes.getLeafCount();
+    if (leafCount > MAX_LEAF_COUNT) {
+      throw new IllegalArgumentException(LEAF_COUNT_EXCEPTION + leafCount);
+    }
+    int leafSize = bytes.getLeafSize();
+    int[] storedLengths = new int[(int) leafCount];
+    byte[] raw = new byte[leafSize];
+    long indexOffset = 0;
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Channels.newOutputStream(FileChannel.open(path, StandardOpenOption.CREATE, 
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)), 1 << 16))) {
+      int i = 0;
+      while (i < storedLengths.length) {
+        //skip the holes
+        long populated = bytes.nextPopulated(((long) i) * leafSize);
+        int next = populated == -1 ? storedLengths.length : (int) (populated / leafSize);
+        for (; i < next; i++) {
+          storedLengths[i] = -1;
+        }
+        if (i < storedLengths.length) {
+          int length = (int) Math.min(leafSize, bytes.size() - ((long) i) * leafSize);
+          bytes.copyTo(((long) i) * leafSize, raw, 0, length);
+          byte[] block = compress ? BlockCodec.compress(raw, 0, length) : null;
+          if (block != null && block.length < length) {
+            out.write(block);
+            storedLengths[i] = block.length;
+          } else {
+            out.write(raw, 0, length);
+            storedLengths[i] = length;
+          }
+          indexOffset += storedLengths[i];
+          i++;
+        }
+      }
+      long offset = 0;
+      for (int j = 0; j < storedLengths.length; j++) {
+        out.writeLong(offset);
+        out.writeInt(storedLengths[j]);
+        offset += Math.max(0, storedLengths[j]);
+      }
+      out.writeLong(indexOffset);
+      out.writeLong(bytes.size());
+      out.writeInt(leafSize);
+      out.writeInt(bytes.getFanOut());
+      out.writeInt(compress ? FLAG_COMPRESSED : 0);
+      out.writeInt(VERSION);
+      out.writeLong(MAGIC);
+    }
+  }
+
+  public FileBigBytes(Path path) throws IOException {
+    this(path, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Opens the file, reading only the trailer and mapping the index.
+   * @param path a file from {@link #write(AbstractBigBytes, Path, boolean)}
+   * @param cacheSize the maximum number of leaves to keep in memory.
+   * @throws IOException if the file can't be read or is NOT a BigBytes file
+   */
+  public FileBigBytes(Path path, int cacheSize) throws IOException {
+    this(open(path, cacheSize), cacheSize);
+  }
+
+  private FileBigBytes(Trailer trailer, int cacheSize) {
+    super(trailer.fanOut, trailer.leafSize, 1);
+    this.channel = trailer.channel;
+    this.compressed = (trailer.flags & FLAG_COMPRESSED) != 0;
+    this.index = trailer.index;
+    this.size = trailer.size;
+    this.cache = new LeafCache(cacheSize);
+    I_BytesMetricsListener listener = BytesMetrics.getListener();
+    if (listener != null) {
+      listener.onBigBytesShape(getDimensions(), getLeafCount());
+    }
+  }
+
+  /**
+   * Closes the file, the leaves which were already read remain usable.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the leaf, which is read from the file if it is NOT cached.
+   * @throws UncheckedIOException if the leaf can't be read
+   */
+  @Override
+  public I_Bytes getLeaf(long leafIndex) {
+    checkLeafIndex(leafIndex);
+    if (storedLength((int) leafIndex) < 0) {
+      //holes are NOT cached
+      return getHole(leafIndex);
+    }
+    I_Bytes r = cache.get(leafIndex);
+    if (r == null) {
+      r = read((int) leafIndex);
+      cache.put(leafIndex, r);
+    }
+    return r;
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  protected long nextHoleLeaf(long leafIndex) {
+    long leafCount = getLeafCount();
+    for (long i = leafIndex; i < leafCount; i++) {
+      if (storedLength((int) i) < 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  protected long nextPopulatedLeaf(long leafIndex) {
+    long leafCount = getLeafCount();
+    for (long i = leafIndex; i < leafCount; i++) {
+      if (storedLength((int) i) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private I_Bytes read(int leafIndex) {
+    int stored = storedLength(leafIndex);
+    int length = (int) Math.min(getLeafSize(), size - ((long) leafIndex) * getLeafSize());
+    long offset = index.getLong(leafIndex * INDEX_ENTRY_SIZE);
+    try {
+      if (offset < 0 || stored > length || (stored < length && !compressed)) {
+        throw new IOException(NOT_A_BIG_BYTES_FILE + leafIndex);
+      }
+      byte[] block = new byte[stored];
+      ByteBuffer buf = ByteBuffer.wrap(block);
+      while (buf.hasRemaining()) {
+        if (channel.read(buf, offset + buf.position()) < 0) {
+          throw new IOException(NOT_A_BIG_BYTES_FILE + leafIndex);
+        }
+      }
+      if (stored == length) {
+        return new BytesView(block, 0, length);
+      }
+      byte[] raw = new byte[length];
+      if (BlockCodec.decompress(block, 0, stored, raw, 0) != length) {
+        throw new IOException(NOT_A_BIG_BYTES_FILE + leafIndex);
+      }
+      return new BytesView(raw, 0, length);
+    } catch (IOException x) {
+      throw new UncheckedIOException(x);
+    }
+  }
+
+  private int storedLength(int leafIndex) {
+    return index.getInt(leafIndex * INDEX_ENTRY_SIZE + 8);
+  }
+
+  private static Trailer open(Path path, int cacheSize) throws IOException {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException(LeafCache.CACHE_SIZE_EXCEPTION + cacheSize);
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long fileSize = channel.size();
+      if (fileSize < TRAILER_SIZE) {
+        throw new IOException(NOT_A_BIG_BYTES_FILE + path);
+      }
+      ByteBuffer buf = ByteBuffer.allocate(TRAILER_SIZE);
+      while (buf.hasRemaining()) {
+        if (channel.read(buf, fileSize - TRAILER_SIZE + buf.position()) < 0) {
+          throw new IOException(NOT_A_BIG_BYTES_FILE + path);
+        }
+      }
+      buf.flip();
+      Trailer r = new Trailer();
+      long indexOffset = buf.getLong();
+      r.size = buf.getLong();
+      r.leafSize = buf.getInt();
+      r.fanOut = buf.getInt();
+      r.flags = buf.getInt();
+      int version = buf.getInt();
+      long magic = buf.getLong();
+      if (magic != MAGIC || version != VERSION || r.leafSize < 1 || r.fanOut < 2 ||
+          r.size < 0) {
+        throw new IOException(NOT_A_BIG_BYTES_FILE + path);
+      }
+      long leafCount = (r.size + r.leafSize - 1) / r.leafSize;
+      if (leafCount > MAX_LEAF_COUNT || indexOffset < 0 ||
+          indexOffset + leafCount * INDEX_ENTRY_SIZE + TRAILER_SIZE != fileSize) {
+        throw new IOException(NOT_A_BIG_BYTES_FILE + path);
+      }
+      r.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset,
+          leafCount * INDEX_ENTRY_SIZE);
+      r.channel = channel;
+      return r;
+    } catch (IOException | RuntimeException x) {
+      channel.close();
+      throw x;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package org.adligo.bytes.jvm;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.adligo.bytes.shared.BytesMetrics;
+import org.adligo.bytes.shared.I_BytesMetricsListener;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * This class counts the {@link I_BytesMetricsListener} events with 
+ * striped counters, and exposes them through JMX and a periodic
+ * {@link BytesMetricsEvent} for Java Flight Recorder. <br/>
+ *   Typically {@link #install()} is called once at startup, which is
+ * useful for tuning the chunkSize and arraysSize of BytesMutants for
+ * a work load.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class JvmBytesMetrics implements I_BytesMetricsListener, JvmBytesMetricsMXBean {
+  public static final String OBJECT_NAME = "org.adligo.bytes:type=BytesMetrics";
+
+  private final LongAccumulator bigBytesMaxDimensions = new LongAccumulator(Math::max, 0);
+  private final LongAccumulator bigBytesMaxLeafCount = new LongAccumulator(Math::max, 0);
+  private final LongAdder bigBytesShapes = new LongAdder();
+  private final LongAdder bytesCopied = new LongAdder();
+  private final LongAdder bytesShared = new LongAdder();
+  private final LongAdder chunksAllocated = new LongAdder();
+  private final LongAdder chunksRecycled = new LongAdder();
+  private final Runnable jfrHook = this::emit;
+  private final LongAdder poolHits = new LongAdder();
+  private final LongAdder poolMisses = new LongAdder();
+
+  /**
+   * Creates a JvmBytesMetrics, registers it with the platform MBeanServer
+   * and Java Flight Recorder, and sets it as the BytesMetrics listener.
+   * @return the installed metrics
+   */
+  public static JvmBytesMetrics install() {
+    JvmBytesMetrics r = new JvmBytesMetrics();
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.registerMBean(r, new ObjectName(OBJECT_NAME));
+    } catch (JMException x) {
+      throw new IllegalStateException(x);
+    }
+    FlightRecorder.addPeriodicEvent(BytesMetricsEvent.class, r.jfrHook);
+    BytesMetrics.setListener(r);
+    return r;
+  }
+
+  /**
+   * Reverses {@link #install()}.
+   */
+  public void uninstall() {
+    if (BytesMetrics.getListener() == this) {
+      BytesMetrics.setListener(null);
+    }
+    FlightRecorder.removePeriodicEvent(jfrHook);
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      server.unregisterMBean(new ObjectName(OBJECT_NAME));
+    } catch (JMException x) {
+      throw new IllegalStateException(x);
+    }
+  }
+
+  @Override
+  public long getBigBytesMaxDimensions() {
+    return bigBytesMaxDimensions.get();
+  }
+
+  @Override
+  public long getBigBytesMaxLeafCount() {
+    return bigBytesMaxLeafCount.get();
+  }
+
+  @Override
+  public long getBigBytesShapes() {
+    return bigBytesShapes.sum();
+  }
+
+  @Override
+  public long getBytesCopied() {
+    return bytesCopied.sum();
+  }
+
+  @Override
+  public long getBytesShared() {
+    return bytesShared.sum();
+  }
+
+  @Override
+  public long getChunksAllocated() {
+    return chunksAllocated.sum();
+  }
+
+  @Override
+  public long getChunksRecycled() {
+    return chunksRecycled.sum();
+  }
+
+  @Override
+  public double getPoolHitRate() {
+    long hits = poolHits.sum();
+    long total = hits + poolMisses.sum();
+    if (total == 0) {
+      return 0.0;
+    }
+    return ((double) hits) / total;
+  }
+
+  @Override
+  public long getPoolHits() {
+    return poolHits.sum();
+  }
+
+  @Override
+  public long getPoolMisses() {
+    return poolMisses.sum();
+  }
+
+  @Override
+  public void onBigBytesShape(int dimensions, long leafCount) {
+    bigBytesMaxDimensions.accumulate(dimensions);
+    bigBytesMaxLeafCount.accumulate(leafCount);
+    bigBytesShapes.increment();
+  }
+
+  @Override
+  public void onBytesCopied(long length) {
+    bytesCopied.add(length);
+  }
+
+  @Override
+  public void onBytesShared(long length) {
+    bytesShared.add(length);
+  }
+
+  @Override
+  public void onChunkAllocated(int chunkSize) {
+    chunksAllocated.increment();
+  }
+
+  @Override
+  public void onChunkRecycled(int chunkSize) {
+    chunksRecycled.increment();
+  }
+
+  @Override
+  public void onPoolAccess(boolean hit) {
+    if (hit) {
+      poolHits.increment();
+    } else {
+      poolMisses.increment();
+    }
+  }
+
+  @Override
+  public void reset() {
+    bigBytesMaxDimensions.reset();
+    bigBytesMaxLeafCount.reset();
+    bigBytesShapes.reset();
+    bytesCopied.reset();
+    bytesShared.reset();
+    chunksAllocated.reset();
+    chunksRecycled.reset();
+    poolHits.reset();
+    poolMisses.reset();
+  }
+
+  private void emit() {
+    BytesMetricsEvent e = new BytesMetricsEvent();
+    e.bigBytesMaxDimensions = getBigBytesMaxDimensions();
+    e.bigBytesMaxLeafCount = getBigBytesMaxLeafCount();
+    e.bytesCopied = getBytesCopied();
+    e.bytesShared = getBytesShared();
+    e.chunksAllocated = getChunksAllocated();
+    e.chunksRecycled = getChunksRecycled();
+    e.poolHits = getPoolHits();
+    e.poolMisses = getPoolMisses();
+    e.commit();
+  }
+}
@@ -0,0 +1,54 @@
+package org.adligo.bytes.jvm;
+
+/**
+ * The JMX view of the {@link JvmBytesMetrics}.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public interface JvmBytesMetricsMXBean {
+
+  long getBigBytesMaxDimensions();
+
+  long getBigBytesMaxLeafCount();
+
+  long getBigBytesShapes();
+
+  long getBytesCopied();
+
+  long getBytesShared();
+
+  long getChunksAllocated();
+
+  long getChunksRecycled();
+
+  /**
+   * 
+   * @return the hits divided by the hits and misses,
+   *   or 0.0 when there has been no pool access.
+   */
+  double getPoolHitRate();
+
+  long getPoolHits();
+
+  long getPoolMisses();
+
+  void reset();
+}
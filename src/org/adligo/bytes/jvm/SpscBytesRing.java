@@ -0,0 +1,68 @@
+package org.adligo.bytes.jvm;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.adligo.bytes.shared.BytesRing;
+
+/**
+ * This class is a lock free single producer single consumer BytesRing.
+ * One thread may write, while one other thread may peek and consume.
+ * The write cursor is published with release semantics after the bytes 
+ * are written, and the read cursor is published with release semantics 
+ * after the bytes are consumed, so each side only sees completed 
+ * operations of the other side.  The consumer MUST finish with (or copy)
+ * each peeked view before it consumes the bytes, since the producer 
+ * may overwrite them as soon as they are consumed.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class SpscBytesRing extends BytesRing {
+  private final AtomicLong readPosition = new AtomicLong();
+  private final AtomicLong writePosition = new AtomicLong();
+
+  public SpscBytesRing() {
+    super();
+  }
+
+  public SpscBytesRing(int arraysSize, int chunkSize) {
+    super(arraysSize, chunkSize);
+  }
+
+  @Override
+  protected long getReadPosition() {
+    return readPosition.getAcquire();
+  }
+
+  @Override
+  protected long getWritePosition() {
+    return writePosition.getAcquire();
+  }
+
+  @Override
+  protected void setReadPosition(long readPosition) {
+    this.readPosition.setRelease(readPosition);
+  }
+
+  @Override
+  protected void setWritePosition(long writePosition) {
+    this.writePosition.setRelease(writePosition);
+  }
+}
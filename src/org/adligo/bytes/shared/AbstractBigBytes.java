@@ -43,10 +43,366 @@ import org.adligo.i_bytes.shared.I_Bytes;
  * limitations under the License.
  * </code><pre>
  */
-public class AbstractBigBytes {
+public abstract class AbstractBigBytes {
+  public static final int DEFAULT_FAN_OUT = 64;
+  public static final int DEFAULT_LEAF_SIZE = 4096;
+  public static final String FAN_OUT_EXCEPTION = "The fan out MUST be at least 2, not ";
+  public static final String INDEX_EXCEPTION_1 = "The index ";
+  public static final String INDEX_EXCEPTION_2 = " MUST be in the bounds 0 to ";
+  public static final String LEAF_SIZE_EXCEPTION = "The leaf size MUST be at least 1, not ";
+  public static final String LENGTH_EXCEPTION = "The length MUST NOT be negative, not ";
+
   /**
    * The number of dimension objects in the tops sub classes
    */
   private int dimensions = 1;
+  /**
+   * The length of the tops arrays in the sub classes.
+   */
+  private final int fanOut;
+  /**
+   * The size of every leaf I_Bytes, except the last leaf which
+   * may be smaller.
+   */
+  private final int leafSize;
+  /**
+   * A full leaf of zeros, for the holes in sparse sub classes.
+   */
+  private I_Bytes zeros;
+
+  protected AbstractBigBytes(int fanOut, int leafSize, int dimensions) {
+    if (fanOut < 2) {
+      throw new IllegalArgumentException(FAN_OUT_EXCEPTION + fanOut);
+    }
+    if (leafSize < 1) {
+      throw new IllegalArgumentException(LEAF_SIZE_EXCEPTION + leafSize);
+    }
+    this.fanOut = fanOut;
+    this.leafSize = leafSize;
+    this.dimensions = dimensions;
+  }
+
+  /**
+   * Copies a range of these bytes into the byte array, one leaf at a time.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   * @throws IndexOutOfBoundsException if the range is outside of these bytes,
+   *   or the length is negative
+   */
+  public void copyTo(long start, byte[] to, int toOffset, int length) {
+    if (length < 0) {
+      throw new IndexOutOfBoundsException(LENGTH_EXCEPTION + length);
+    }
+    if (length == 0) {
+      return;
+    }
+    checkIndex(start);
+    checkIndex(start + length - 1);
+    long leafIndex = start / leafSize;
+    int leafOffset = (int) (start % leafSize);
+    while (length > 0) {
+      I_Bytes leaf = getLeaf(leafIndex);
+      int n = Math.min(length, leaf.size() - leafOffset);
+      Bytes.copy(leaf, leafOffset, to, toOffset, n);
+      toOffset += n;
+      length -= n;
+      leafIndex++;
+      leafOffset = 0;
+    }
+  }
+
+  /**
+   * 
+   * @param i
+   * @return
+   * @throws IndexOutOfBoundsException if the index is bigger than the size
+   */
+  public byte get(long i) {
+    checkIndex(i);
+    return getLeaf(i / leafSize).get((int) (i % leafSize));
+  }
+
+  public int getDimensions() {
+    return dimensions;
+  }
+
+  public int getFanOut() {
+    return fanOut;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the leaf which contains the bytes from 
+   *   leafIndex * leafSize until the next leaf.
+   * @throws IndexOutOfBoundsException if the leafIndex is not less than the
+   *   leaf count
+   */
+  public abstract I_Bytes getLeaf(long leafIndex);
+
+  public long getLeafCount() {
+    return (size() + leafSize - 1) / leafSize;
+  }
+
+  public int getLeafSize() {
+    return leafSize;
+  }
+
+  /**
+   * Sparse sub classes have empty slots (holes) in their tops, which 
+   * read as zeros.  This and {@link #nextPopulated(long)} allow bulk 
+   * operations to skip holes, i.e.
+   * <pre><code>
+   * long s = bb.nextPopulated(0);
+   * while (s != -1) {
+   *   long e = bb.nextHole(s);
+   *   //process s until e
+   *   s = bb.nextPopulated(e);
+   * }
+   * </code></pre>
+   * which is what {@link #forEachPopulatedRange(I_RangeVisitor)} does.
+   * @param from
+   * @return the first index at or after from which is in a hole, 
+   *   or the size if there are no more holes.
+   */
+  public long nextHole(long from) {
+    long size = size();
+    if (from >= size) {
+      return size;
+    }
+    long leafIndex = nextHoleLeaf(from / leafSize);
+    if (leafIndex < 0) {
+      return size;
+    }
+    return Math.min(size, Math.max(from, leafIndex * leafSize));
+  }
+
+  /**
+   * 
+   * @param from
+   * @return the first index at or after from which is in a populated leaf,
+   *   or -1 if there are no more populated leaves.
+   * @see #nextHole(long)
+   */
+  public long nextPopulated(long from) {
+    if (from >= size()) {
+      return -1;
+    }
+    long leafIndex = nextPopulatedLeaf(from / leafSize);
+    if (leafIndex < 0) {
+      return -1;
+    }
+    return Math.max(from, leafIndex * leafSize);
+  }
+
+  /**
+   * Visits each populated range of these bytes in order, 
+   * skipping the holes, see {@link #nextHole(long)}.
+   * @param visitor
+   */
+  public void forEachPopulatedRange(I_RangeVisitor visitor) {
+    long start = nextPopulated(0);
+    while (start != -1) {
+      long end = nextHole(start);
+      visitor.visit(start, end);
+      start = nextPopulated(end);
+    }
+  }
 
+  public abstract long size();
+
+  /**
+   * Visits the byte arrays of the range of bytes in order, one leaf at a time.
+   */
+  void forEachSegment(long start, long end, SegmentVisitor visitor) {
+    if (start >= end) {
+      return;
+    }
+    checkIndex(start);
+    checkIndex(end - 1);
+    long leafIndex = start / leafSize;
+    int leafOffset = (int) (start % leafSize);
+    while (start < end) {
+      I_Bytes leaf = getLeaf(leafIndex);
+      int n = (int) Math.min(end - start, leaf.size() - leafOffset);
+      Bytes.forEachSegment(leaf, leafOffset, leafOffset + n, visitor);
+      start += n;
+      leafIndex++;
+      leafOffset = 0;
+    }
+  }
+
+  protected void addDimension() {
+    dimensions++;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return a leaf of zeros for the hole at the leafIndex
+   */
+  protected I_Bytes getHole(long leafIndex) {
+    long remaining = size() - leafIndex * leafSize;
+    if (remaining < leafSize) {
+      return new ZeroBytes((int) remaining);
+    }
+    I_Bytes r = zeros;
+    if (r == null) {
+      r = new ZeroBytes(leafSize);
+      zeros = r;
+    }
+    return r;
+  }
+
+  /**
+   * 
+   * @return the tops array of the tree sub classes (BigBytes and BigBytesMutant), 
+   *   or null for the others.
+   */
+  Either<? extends I_Bytes, AbstractBigBytes>[] getTops() {
+    return null;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the first leaf index at or after leafIndex which is a hole,
+   *   or -1 if there are no more holes.
+   */
+  protected long nextHoleLeaf(long leafIndex) {
+    if (getTops() == null) {
+      return -1;
+    }
+    long r = nextHoleLeaf(this, leafIndex);
+    if (r < 0) {
+      //the leaves after the capacity of the tops are holes
+      r = Math.max(leafIndex, getLeafCapacity());
+    }
+    return r >= getLeafCount() ? -1 : r;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the first leaf index at or after leafIndex which is populated,
+   *   or -1 if there are no more populated leaves.
+   */
+  protected long nextPopulatedLeaf(long leafIndex) {
+    if (getTops() == null) {
+      return leafIndex < getLeafCount() ? leafIndex : -1;
+    }
+    long r = nextPopulatedLeaf(this, leafIndex);
+    return r >= getLeafCount() ? -1 : r;
+  }
+
+  protected void checkIndex(long i) {
+    if (i < 0 || i >= size()) {
+      throw new IndexOutOfBoundsException(INDEX_EXCEPTION_1 + i + INDEX_EXCEPTION_2 + size());
+    }
+  }
+
+  protected void checkLeafIndex(long leafIndex) {
+    if (leafIndex < 0 || leafIndex >= getLeafCount()) {
+      throw new IndexOutOfBoundsException(INDEX_EXCEPTION_1 + leafIndex + 
+          INDEX_EXCEPTION_2 + getLeafCount());
+    }
+  }
+
+  /**
+   * 
+   * @return the number of leaves the tops array can route to,
+   *   or Long.MAX_VALUE if that would overflow.
+   */
+  protected long getLeafCapacity() {
+    long span = getSpan();
+    if (span > Long.MAX_VALUE / fanOut) {
+      return Long.MAX_VALUE;
+    }
+    return span * fanOut;
+  }
+
+  /**
+   * 
+   * @return the number of leaves under each slot of the tops array,
+   *   or Long.MAX_VALUE if that would overflow.
+   */
+  protected long getSpan() {
+    return span(fanOut, dimensions);
+  }
+
+  private static long nextHoleLeaf(AbstractBigBytes node, long leafIndex) {
+    Either<? extends I_Bytes, AbstractBigBytes>[] tops = node.getTops();
+    //check the capacity before the int casts, the size may be far bigger
+    if (leafIndex / node.getSpan() >= tops.length) {
+      return -1;
+    }
+    if (node.getDimensions() == 1) {
+      for (int i = (int) leafIndex; i < tops.length; i++) {
+        if (tops[i] == null || !tops[i].getLeft().isPresent()) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    long span = node.getSpan();
+    int first = (int) (leafIndex / span);
+    for (int i = first; i < tops.length; i++) {
+      long from = i == first ? leafIndex % span : 0;
+      if (tops[i] == null || !tops[i].getRight().isPresent()) {
+        return i * span + from;
+      }
+      long r = nextHoleLeaf(tops[i].getRight().get(), from);
+      if (r >= 0) {
+        return i * span + r;
+      }
+    }
+    return -1;
+  }
+
+  private static long nextPopulatedLeaf(AbstractBigBytes node, long leafIndex) {
+    Either<? extends I_Bytes, AbstractBigBytes>[] tops = node.getTops();
+    //check the capacity before the int casts, the size may be far bigger
+    if (leafIndex / node.getSpan() >= tops.length) {
+      return -1;
+    }
+    if (node.getDimensions() == 1) {
+      for (int i = (int) leafIndex; i < tops.length; i++) {
+        if (tops[i] != null && tops[i].getLeft().isPresent()) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    long span = node.getSpan();
+    int first = (int) (leafIndex / span);
+    for (int i = first; i < tops.length; i++) {
+      if (tops[i] != null && tops[i].getRight().isPresent()) {
+        long r = nextPopulatedLeaf(tops[i].getRight().get(), i == first ? leafIndex % span : 0);
+        if (r >= 0) {
+          return i * span + r;
+        }
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * 
+   * @param fanOut
+   * @param dimensions
+   * @return the number of leaves under each slot of a tops array with
+   *   the dimensions, or Long.MAX_VALUE if that would overflow.
+   */
+  protected static long span(int fanOut, int dimensions) {
+    long r = 1;
+    for (int i = 1; i < dimensions; i++) {
+      if (r > Long.MAX_VALUE / fanOut) {
+        return Long.MAX_VALUE;
+      }
+      r = r * fanOut;
+    }
+    return r;
+  }
 }
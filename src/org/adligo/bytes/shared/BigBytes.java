@@ -1,5 +1,8 @@
 package org.adligo.bytes.shared;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.adligo.i_bytes.shared.I_Bytes;
 
 /**
@@ -26,6 +29,13 @@ import org.adligo.i_bytes.shared.I_Bytes;
  * </code><pre>
  */
 public class BigBytes extends AbstractBigBytes {
+  public static final String LEAF_EXCEPTION_1 = "The leaf at ";
+  public static final String LEAF_EXCEPTION_2 = " MUST have a size of ";
+  public static final String LEAF_EXCEPTION_3 = "The last leaf MUST have a size between 1 and ";
+  public static final String LEAF_COUNT_EXCEPTION_1 = "The number of leaves ";
+  public static final String LEAF_COUNT_EXCEPTION_2 = " MUST NOT be more than the leaf count of the size ";
+
+  private final long size;
   /**
    * Either this is a dimension of 1 in which case everything is
    * either empty in the tops array or is set to a I_Bytes.  If
@@ -33,5 +43,150 @@ public class BigBytes extends AbstractBigBytes {
    * the slots are either empty or AbstractBigBytes (which should have
    * a dimension of this dimension-1).
    */
-  private Either<I_Bytes, AbstractBigBytes>[] tops;
+  private final Either<I_Bytes, AbstractBigBytes>[] tops;
+
+  public BigBytes(List<? extends I_Bytes> leaves) {
+    this(DEFAULT_FAN_OUT, DEFAULT_LEAF_SIZE, leaves);
+  }
+
+  /**
+   * 
+   * @param fanOut the size of the tops arrays
+   * @param leafSize the size of every leaf, except the last leaf
+   *   which may be smaller
+   * @param leaves the leaves, where null leaves are holes which read as zeros,
+   *   the last leaf MUST NOT be null.
+   */
+  public BigBytes(int fanOut, int leafSize, List<? extends I_Bytes> leaves) {
+    this(fanOut, leafSize, size(leafSize, leaves), leaves);
+  }
+
+  /**
+   * This constructor allows sparse BigBytes, where only some leaves 
+   * are allocated.
+   * @param fanOut the size of the tops arrays
+   * @param leafSize the size of every leaf, except the last leaf
+   *   which may be smaller
+   * @param size the size, leaves after the end of the list are holes
+   * @param leaves the leaves, where null leaves are holes which read as zeros
+   */
+  public BigBytes(int fanOut, int leafSize, long size, List<? extends I_Bytes> leaves) {
+    super(fanOut, leafSize, dimensions(fanOut, (size + leafSize - 1) / leafSize));
+    this.size = size;
+    long leafCount = getLeafCount();
+    if (leaves.size() > leafCount) {
+      throw new IllegalArgumentException(LEAF_COUNT_EXCEPTION_1 + leaves.size() + 
+          LEAF_COUNT_EXCEPTION_2 + leafCount);
+    }
+    for (int i = 0; i < leaves.size(); i++) {
+      I_Bytes leaf = leaves.get(i);
+      long expected = Math.min(leafSize, size - ((long) i) * leafSize);
+      if (leaf != null && leaf.size() != expected) {
+        throw new IllegalArgumentException(LEAF_EXCEPTION_1 + i + LEAF_EXCEPTION_2 + expected);
+      }
+    }
+    this.tops = tops(fanOut, getDimensions(), leaves, 0);
+    BytesMetrics.bigBytesShape(getDimensions(), leafCount);
+  }
+
+  private BigBytes(int fanOut, int leafSize, int dimensions, long size,
+      Either<I_Bytes, AbstractBigBytes>[] tops) {
+    super(fanOut, leafSize, dimensions);
+    this.size = size;
+    this.tops = tops;
+  }
+
+  @Override
+  public I_Bytes getLeaf(long leafIndex) {
+    checkLeafIndex(leafIndex);
+    I_Bytes r = find(leafIndex);
+    if (r == null) {
+      return getHole(leafIndex);
+    }
+    return r;
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  Either<? extends I_Bytes, AbstractBigBytes>[] getTops() {
+    return tops;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the leaf or null if it is a hole
+   */
+  private I_Bytes find(long leafIndex) {
+    Either<I_Bytes, AbstractBigBytes> top;
+    if (getDimensions() == 1) {
+      top = tops[(int) leafIndex];
+      return top.getLeft().orElse(null);
+    }
+    long span = getSpan();
+    top = tops[(int) (leafIndex / span)];
+    if (!top.getRight().isPresent()) {
+      return null;
+    }
+    BigBytes child = (BigBytes) top.getRight().get();
+    return child.find(leafIndex % span);
+  }
+
+  private static int dimensions(int fanOut, long leafCount) {
+    int r = 1;
+    long capacity = fanOut;
+    while (capacity < leafCount) {
+      capacity = capacity * fanOut;
+      r++;
+    }
+    return r;
+  }
+
+  private static long size(int leafSize, List<? extends I_Bytes> leaves) {
+    int last = leaves.size() - 1;
+    if (last < 0) {
+      return 0;
+    }
+    I_Bytes leaf = leaves.get(last);
+    if (leaf == null || leaf.size() < 1 || leaf.size() > leafSize) {
+      throw new IllegalArgumentException(LEAF_EXCEPTION_3 + leafSize);
+    }
+    return ((long) last) * leafSize + leaf.size();
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Either<I_Bytes, AbstractBigBytes>[] tops(int fanOut, int dimensions, 
+      List<? extends I_Bytes> leaves, long from) {
+    Either<I_Bytes, AbstractBigBytes>[] r = new Either[fanOut];
+    long span = span(fanOut, dimensions);
+    for (int i = 0; i < fanOut; i++) {
+      long start = from + i * span;
+      long end = Math.min(leaves.size(), start + span);
+      if (!populated(leaves, start, end)) {
+        r[i] = new Either<I_Bytes, AbstractBigBytes>(Optional.empty(), Optional.empty());
+      } else if (dimensions == 1) {
+        r[i] = new Either<I_Bytes, AbstractBigBytes>(Optional.of(leaves.get((int) start)),
+            Optional.empty());
+      } else {
+        long childSize = Math.min(size, (start + span) * getLeafSize()) - start * getLeafSize();
+        BigBytes child = new BigBytes(fanOut, getLeafSize(), dimensions - 1, childSize,
+            tops(fanOut, dimensions - 1, leaves, start));
+        r[i] = new Either<I_Bytes, AbstractBigBytes>(Optional.empty(), Optional.of(child));
+      }
+    }
+    return r;
+  }
+
+  private static boolean populated(List<? extends I_Bytes> leaves, long start, long end) {
+    for (long i = start; i < end; i++) {
+      if (leaves.get((int) i) != null) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
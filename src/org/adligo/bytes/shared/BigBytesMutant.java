@@ -1,6 +1,8 @@
 package org.adligo.bytes.shared;
 
-import org.adligo.i_bytes.shared.I_BytesMutant;
+import java.util.Optional;
+
+import org.adligo.i_bytes.shared.I_Bytes;
 
 /**
  * This class provides a mutable infinite sized bytes.O 
@@ -25,12 +27,195 @@ import org.adligo.i_bytes.shared.I_BytesMutant;
  * </code><pre>
  */
 public class BigBytesMutant extends AbstractBigBytes {
+  /**
+   * The leaf that is currently being added to.
+   */
+  private BytesMutant last;
+  private long lastIndex = -1;
+  /**
+   * The number of leaves which were allocated, only tracked by the root.
+   */
+  private long leaves;
+  /**
+   * Only the root tracks the size, nodes under the root 
+   * are only used to route to the leaves.
+   */
+  private long size;
   /**
    * Either this is a dimension of 1 in which case everything is
-   * either empty in the tops array or is set to a I_Bytes.  If
+   * either empty in the tops array or is set to a BytesMutant.  If
    * the dimension is 2 or greater then this class recurses so that
    * the slots are either empty or AbstractBigBytes (which should have
-   * a dimension of this dimension-1).
+   * a dimension of this dimension-1).  Empty slots are holes which 
+   * read as zeros.
+   */
+  private Either<BytesMutant, AbstractBigBytes>[] tops;
+
+  public BigBytesMutant() {
+    this(DEFAULT_FAN_OUT, DEFAULT_LEAF_SIZE);
+  }
+
+  public BigBytesMutant(int fanOut, int leafSize) {
+    this(fanOut, leafSize, 1);
+  }
+
+  private BigBytesMutant(int fanOut, int leafSize, int dimensions) {
+    super(fanOut, leafSize, dimensions);
+    this.tops = newTops(fanOut);
+  }
+
+  public void add(byte b) {
+    appendLeaf().add(b);
+    size++;
+  }
+
+  public void add(byte[] bytes, int start, int end) {
+    while (start < end) {
+      BytesMutant leaf = appendLeaf();
+      int length = Math.min(end - start, getLeafSize() - leaf.size());
+      leaf.add(bytes, start, start + length);
+      start += length;
+      size += length;
+    }
+  }
+
+  /**
+   * Adds zeros without allocating leaves for them, only
+   * the partially filled last leaf is extended.
+   * @param length the number of zeros to add
+   * @throws IllegalArgumentException if the length is negative
+   */
+  public void addZeros(long length) {
+    if (length < 0) {
+      throw new IllegalArgumentException(LENGTH_EXCEPTION + length);
+    }
+    int offset = (int) (size % getLeafSize());
+    if (offset != 0 && length > 0) {
+      BytesMutant leaf = find(size / getLeafSize());
+      if (leaf != null) {
+        int n = (int) Math.min(length, getLeafSize() - offset);
+        leaf.addZeros(n);
+        size += n;
+        length -= n;
+      }
+    }
+    size += length;
+  }
+
+  @Override
+  public I_Bytes getLeaf(long leafIndex) {
+    checkLeafIndex(leafIndex);
+    BytesMutant r = find(leafIndex);
+    if (r == null) {
+      return getHole(leafIndex);
+    }
+    return r;
+  }
+
+  /**
+   * Replaces a byte, only the leaf that contains the byte 
+   * is allocated if it was a hole.
+   * @param i
+   * @param b
+   * @throws IndexOutOfBoundsException if the index is bigger than the size
+   */
+  public void set(long i, byte b) {
+    checkIndex(i);
+    materialize(i / getLeafSize()).set((int) (i % getLeafSize()), b);
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  Either<? extends I_Bytes, AbstractBigBytes>[] getTops() {
+    return tops;
+  }
+
+  /**
+   * 
+   * @return the leaf which contains the index at the size.
    */
-  private Either<I_BytesMutant, AbstractBigBytes>[] tops;
+  private BytesMutant appendLeaf() {
+    long leafIndex = size / getLeafSize();
+    if (leafIndex != lastIndex) {
+      last = materialize(leafIndex);
+      lastIndex = leafIndex;
+    }
+    return last;
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the leaf or null if it is a hole
+   */
+  private BytesMutant find(long leafIndex) {
+    if (leafIndex >= getLeafCapacity()) {
+      return null;
+    }
+    if (getDimensions() == 1) {
+      Either<BytesMutant, AbstractBigBytes> top = tops[(int) leafIndex];
+      return top == null ? null : top.getLeft().get();
+    }
+    long span = getSpan();
+    Either<BytesMutant, AbstractBigBytes> top = tops[(int) (leafIndex / span)];
+    if (top == null) {
+      return null;
+    }
+    BigBytesMutant child = (BigBytesMutant) top.getRight().get();
+    return child.find(leafIndex % span);
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the leaf at the index, which is allocated (filled with zeros) 
+   *   if it was a hole.
+   */
+  private BytesMutant materialize(long leafIndex) {
+    BytesMutant r = find(leafIndex);
+    if (r != null) {
+      return r;
+    }
+    while (getLeafCapacity() <= leafIndex) {
+      BigBytesMutant child = new BigBytesMutant(getFanOut(), getLeafSize(), getDimensions());
+      child.tops = tops;
+      tops = newTops(getFanOut());
+      tops[0] = new Either<BytesMutant, AbstractBigBytes>(Optional.empty(), Optional.of(child));
+      addDimension();
+    }
+    r = new BytesMutant(1, getLeafSize());
+    r.addZeros((int) Math.min(getLeafSize(), size - leafIndex * getLeafSize()));
+    put(leafIndex, r);
+    leaves++;
+    BytesMetrics.bigBytesShape(getDimensions(), leaves);
+    return r;
+  }
+
+  private void put(long leafIndex, BytesMutant leaf) {
+    if (getDimensions() == 1) {
+      tops[(int) leafIndex] = new Either<BytesMutant, AbstractBigBytes>(Optional.of(leaf), 
+          Optional.empty());
+      return;
+    }
+    long span = getSpan();
+    int slot = (int) (leafIndex / span);
+    Either<BytesMutant, AbstractBigBytes> top = tops[slot];
+    BigBytesMutant child;
+    if (top == null || !top.getRight().isPresent()) {
+      child = new BigBytesMutant(getFanOut(), getLeafSize(), getDimensions() - 1);
+      tops[slot] = new Either<BytesMutant, AbstractBigBytes>(Optional.empty(), Optional.of(child));
+    } else {
+      child = (BigBytesMutant) top.getRight().get();
+    }
+    child.put(leafIndex % span, leaf);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Either<BytesMutant, AbstractBigBytes>[] newTops(int fanOut) {
+    return new Either[fanOut];
+  }
 }
@@ -0,0 +1,213 @@
+package org.adligo.bytes.shared;
+
+/**
+ * This class provides a fast pure Java block compressor, which writes the
+ * {@link <a href="https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md">LZ4 Block Format</a>}.
+ * It trades compression ratio for speed, so that blocks (i.e. the leaves of
+ * a {@link CompressedBigBytes}) can be decompressed on demand.
+ * There is no frame or checksum, the caller MUST know the size
+ * of the decompressed block. <br/>
+ *
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BlockCodec {
+  public static final String CORRUPT_BLOCK = "The compressed block is corrupt at ";
+  private static final int HASH_LOG = 12;
+  /**
+   * The last 5 bytes of a block are always literals.
+   */
+  private static final int LAST_LITERALS = 5;
+  private static final int MAX_OFFSET = 65535;
+  /**
+   * The last match MUST start at least 12 bytes before the end of the block.
+   */
+  private static final int MF_LIMIT = 12;
+  private static final int MIN_MATCH = 4;
+  /**
+   * After 2^SKIP_TRIGGER misses the search step is increased,
+   * which makes incompressible data fast.
+   */
+  private static final int SKIP_TRIGGER = 6;
+
+  /**
+   *
+   * @param bytes
+   * @param start
+   * @param end
+   * @return the compressed bytes from start to end
+   */
+  public static byte[] compress(byte[] bytes, int start, int end) {
+    byte[] out = new byte[maxCompressedLength(end - start)];
+    int op = 0;
+    int anchor = start;
+    if (end - start > MF_LIMIT) {
+      //positions are stored + 1 so that 0 is empty
+      int[] table = new int[1 << HASH_LOG];
+      int limit = end - MF_LIMIT;
+      int matchLimit = end - LAST_LITERALS;
+      int ip = start;
+      int misses = 0;
+      while (ip < limit) {
+        int sequence = readInt(bytes, ip);
+        int h = hash(sequence);
+        int ref = table[h] - 1;
+        table[h] = ip + 1;
+        if (ref >= start && ip - ref <= MAX_OFFSET && readInt(bytes, ref) == sequence) {
+          int matchEnd = ip + MIN_MATCH;
+          int r = ref + MIN_MATCH;
+          while (matchEnd < matchLimit && bytes[matchEnd] == bytes[r]) {
+            matchEnd++;
+            r++;
+          }
+          op = writeSequence(bytes, anchor, ip - anchor, out, op, ip - ref,
+              matchEnd - ip - MIN_MATCH);
+          ip = matchEnd;
+          anchor = ip;
+          misses = 0;
+        } else {
+          ip += (misses++ >>> SKIP_TRIGGER) + 1;
+        }
+      }
+    }
+    op = writeLastLiterals(bytes, anchor, end - anchor, out, op);
+    byte[] r = new byte[op];
+    System.arraycopy(out, 0, r, 0, op);
+    return r;
+  }
+
+  /**
+   *
+   * @param block the compressed bytes
+   * @param start the first index of the block
+   * @param end the index after the block
+   * @param to the destination, which MUST be big enough for the decompressed bytes
+   * @param toOffset
+   * @return the number of decompressed bytes written to the destination
+   * @throws IllegalArgumentException if the block is corrupt
+   */
+  public static int decompress(byte[] block, int start, int end, byte[] to, int toOffset) {
+    int ip = start;
+    int op = toOffset;
+    try {
+      while (ip < end) {
+        int token = block[ip++] & 0xff;
+        int literals = token >>> 4;
+        if (literals == 15) {
+          int b;
+          do {
+            b = block[ip++] & 0xff;
+            literals += b;
+          } while (b == 255);
+        }
+        System.arraycopy(block, ip, to, op, literals);
+        ip += literals;
+        op += literals;
+        if (ip >= end) {
+          break;
+        }
+        int offset = (block[ip] & 0xff) | ((block[ip + 1] & 0xff) << 8);
+        ip += 2;
+        int match = token & 15;
+        if (match == 15) {
+          int b;
+          do {
+            b = block[ip++] & 0xff;
+            match += b;
+          } while (b == 255);
+        }
+        match += MIN_MATCH;
+        int ref = op - offset;
+        if (offset == 0 || ref < toOffset) {
+          throw new IllegalArgumentException(CORRUPT_BLOCK + ip);
+        }
+        if (offset >= match) {
+          System.arraycopy(to, ref, to, op, match);
+          op += match;
+        } else {
+          //overlapping matches repeat the bytes
+          for (int i = 0; i < match; i++) {
+            to[op++] = to[ref++];
+          }
+        }
+      }
+    } catch (IndexOutOfBoundsException x) {
+      throw new IllegalArgumentException(CORRUPT_BLOCK + ip, x);
+    }
+    return op - toOffset;
+  }
+
+  public static int maxCompressedLength(int length) {
+    return length + length / 255 + 16;
+  }
+
+  private static int hash(int sequence) {
+    return (sequence * -1640531535) >>> (32 - HASH_LOG);
+  }
+
+  private static int readInt(byte[] bytes, int i) {
+    return (bytes[i] & 0xff) | ((bytes[i + 1] & 0xff) << 8) |
+        ((bytes[i + 2] & 0xff) << 16) | ((bytes[i + 3] & 0xff) << 24);
+  }
+
+  private static int writeLastLiterals(byte[] bytes, int start, int length, byte[] out, int op) {
+    if (length >= 15) {
+      out[op++] = (byte) (15 << 4);
+      op = writeLength(length - 15, out, op);
+    } else {
+      out[op++] = (byte) (length << 4);
+    }
+    System.arraycopy(bytes, start, out, op, length);
+    return op + length;
+  }
+
+  private static int writeLength(int length, byte[] out, int op) {
+    while (length >= 255) {
+      out[op++] = (byte) 255;
+      length -= 255;
+    }
+    out[op++] = (byte) length;
+    return op;
+  }
+
+  private static int writeSequence(byte[] bytes, int start, int length, byte[] out, int op,
+      int offset, int match) {
+    int tokenIndex = op++;
+    int token;
+    if (length >= 15) {
+      token = 15 << 4;
+      op = writeLength(length - 15, out, op);
+    } else {
+      token = length << 4;
+    }
+    System.arraycopy(bytes, start, out, op, length);
+    op += length;
+    out[op++] = (byte) offset;
+    out[op++] = (byte) (offset >>> 8);
+    if (match >= 15) {
+      token |= 15;
+      op = writeLength(match - 15, out, op);
+    } else {
+      token |= match;
+    }
+    out[tokenIndex] = (byte) token;
+    return op;
+  }
+}
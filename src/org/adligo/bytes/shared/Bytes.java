@@ -1,5 +1,6 @@
 package org.adligo.bytes.shared;
 
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -41,8 +42,12 @@ import org.adligo.i_bytes.shared.I_Bytes;
  */
 public class Bytes implements I_Bytes {
   public static final String HEX_CHARS = "0123456789abcdef";
-  // 084c 2a6d 195e 3b7f
-  public static final String HEX_CHARS_REVERSED = "084c2a6d195e3b7f";
+  // 084c 2a6e 195d 3b7f
+  public static final String HEX_CHARS_REVERSED = "084c2a6e195d3b7f";
+  /**
+   * The empty bytes, which are shared since they never change.
+   */
+  public static final I_Bytes EMPTY = new BytesView(new byte[0], 0, 0);
   
   public static final byte U0 = 0x00;
   public static final byte U1 = 0x01;
@@ -316,6 +321,12 @@ public class Bytes implements I_Bytes {
   public static final byte U254 = (byte) 0xfe;
   public static final byte U255 = (byte) 0xff;
 
+  /**
+   * 
+   * @param b
+   * @return the byte with it's bits in the reverse order,
+   *   see {@link BytesTransform#REVERSE_BITS} for a lazy view.
+   */
   public byte reverse(byte b) {
     switch (b) {
       case U0: return (byte) 0x00;
@@ -325,11 +336,11 @@ public class Bytes implements I_Bytes {
       case U4: return (byte) 0x20;
       case U5: return (byte) 0xa0;
       case U6: return (byte) 0x60;
-      case U7: return (byte) 0xd0;
+      case U7: return (byte) 0xe0;
       case U8: return (byte) 0x10;
       case U9: return (byte) 0x90;
       case U10: return (byte) 0x50;
-      case U11: return (byte) 0xe0;
+      case U11: return (byte) 0xd0;
       case U12: return (byte) 0x30;
       case U13: return (byte) 0xb0;
       case U14: return (byte) 0x70;
@@ -341,11 +352,11 @@ public class Bytes implements I_Bytes {
       case U20: return (byte) 0x28;
       case U21: return (byte) 0xa8;
       case U22: return (byte) 0x68;
-      case U23: return (byte) 0xd8;
+      case U23: return (byte) 0xe8;
       case U24: return (byte) 0x18;
       case U25: return (byte) 0x98;
       case U26: return (byte) 0x58;
-      case U27: return (byte) 0xe8;
+      case U27: return (byte) 0xd8;
       case U28: return (byte) 0x38;
       case U29: return (byte) 0xb8;
       case U30: return (byte) 0x78;
@@ -357,11 +368,11 @@ public class Bytes implements I_Bytes {
       case U36: return (byte) 0x24;
       case U37: return (byte) 0xa4;
       case U38: return (byte) 0x64;
-      case U39: return (byte) 0xd4;
+      case U39: return (byte) 0xe4;
       case U40: return (byte) 0x14;
       case U41: return (byte) 0x94;
       case U42: return (byte) 0x54;
-      case U43: return (byte) 0xe4;
+      case U43: return (byte) 0xd4;
       case U44: return (byte) 0x34;
       case U45: return (byte) 0xb4;
       case U46: return (byte) 0x74;
@@ -373,11 +384,11 @@ public class Bytes implements I_Bytes {
       case U52: return (byte) 0x2c;
       case U53: return (byte) 0xac;
       case U54: return (byte) 0x6c;
-      case U55: return (byte) 0xdc;
+      case U55: return (byte) 0xec;
       case U56: return (byte) 0x1c;
       case U57: return (byte) 0x9c;
       case U58: return (byte) 0x5c;
-      case U59: return (byte) 0xec;
+      case U59: return (byte) 0xdc;
       case U60: return (byte) 0x3c;
       case U61: return (byte) 0xbc;
       case U62: return (byte) 0x7c;
@@ -389,11 +400,11 @@ public class Bytes implements I_Bytes {
       case U68: return (byte) 0x22;
       case U69: return (byte) 0xa2;
       case U70: return (byte) 0x62;
-      case U71: return (byte) 0xd2;
+      case U71: return (byte) 0xe2;
       case U72: return (byte) 0x12;
       case U73: return (byte) 0x92;
       case U74: return (byte) 0x52;
-      case U75: return (byte) 0xe2;
+      case U75: return (byte) 0xd2;
       case U76: return (byte) 0x32;
       case U77: return (byte) 0xb2;
       case U78: return (byte) 0x72;
@@ -405,11 +416,11 @@ public class Bytes implements I_Bytes {
       case U84: return (byte) 0x2a;
       case U85: return (byte) 0xaa;
       case U86: return (byte) 0x6a;
-      case U87: return (byte) 0xda;
+      case U87: return (byte) 0xea;
       case U88: return (byte) 0x1a;
       case U89: return (byte) 0x9a;
       case U90: return (byte) 0x5a;
-      case U91: return (byte) 0xea;
+      case U91: return (byte) 0xda;
       case U92: return (byte) 0x3a;
       case U93: return (byte) 0xba;
       case U94: return (byte) 0x7a;
@@ -421,31 +432,31 @@ public class Bytes implements I_Bytes {
       case U100: return (byte) 0x26;
       case U101: return (byte) 0xa6;
       case U102: return (byte) 0x66;
-      case U103: return (byte) 0xd6;
+      case U103: return (byte) 0xe6;
       case U104: return (byte) 0x16;
       case U105: return (byte) 0x96;
       case U106: return (byte) 0x56;
-      case U107: return (byte) 0xe6;
+      case U107: return (byte) 0xd6;
       case U108: return (byte) 0x36;
       case U109: return (byte) 0xb6;
       case U110: return (byte) 0x76;
       case U111: return (byte) 0xf6;
-      case U112: return (byte) 0x0d;
-      case U113: return (byte) 0x8d;
-      case U114: return (byte) 0x4d;
-      case U115: return (byte) 0xcd;
-      case U116: return (byte) 0x2d;
-      case U117: return (byte) 0xad;
-      case U118: return (byte) 0x6d;
-      case U119: return (byte) 0xdd;
-      case U120: return (byte) 0x1d;
-      case U121: return (byte) 0x9d;
-      case U122: return (byte) 0x5d;
-      case U123: return (byte) 0xed;
-      case U124: return (byte) 0x3d;
-      case U125: return (byte) 0xbd;
-      case U126: return (byte) 0x7d;
-      case U127: return (byte) 0xfd;
+      case U112: return (byte) 0x0e;
+      case U113: return (byte) 0x8e;
+      case U114: return (byte) 0x4e;
+      case U115: return (byte) 0xce;
+      case U116: return (byte) 0x2e;
+      case U117: return (byte) 0xae;
+      case U118: return (byte) 0x6e;
+      case U119: return (byte) 0xee;
+      case U120: return (byte) 0x1e;
+      case U121: return (byte) 0x9e;
+      case U122: return (byte) 0x5e;
+      case U123: return (byte) 0xde;
+      case U124: return (byte) 0x3e;
+      case U125: return (byte) 0xbe;
+      case U126: return (byte) 0x7e;
+      case U127: return (byte) 0xfe;
       case U128: return (byte) 0x01;
       case U129: return (byte) 0x81;
       case U130: return (byte) 0x41;
@@ -453,11 +464,11 @@ public class Bytes implements I_Bytes {
       case U132: return (byte) 0x21;
       case U133: return (byte) 0xa1;
       case U134: return (byte) 0x61;
-      case U135: return (byte) 0xd1;
+      case U135: return (byte) 0xe1;
       case U136: return (byte) 0x11;
       case U137: return (byte) 0x91;
       case U138: return (byte) 0x51;
-      case U139: return (byte) 0xe1;
+      case U139: return (byte) 0xd1;
       case U140: return (byte) 0x31;
       case U141: return (byte) 0xb1;
       case U142: return (byte) 0x71;
@@ -469,11 +480,11 @@ public class Bytes implements I_Bytes {
       case U148: return (byte) 0x29;
       case U149: return (byte) 0xa9;
       case U150: return (byte) 0x69;
-      case U151: return (byte) 0xd9;
+      case U151: return (byte) 0xe9;
       case U152: return (byte) 0x19;
       case U153: return (byte) 0x99;
       case U154: return (byte) 0x59;
-      case U155: return (byte) 0xe9;
+      case U155: return (byte) 0xd9;
       case U156: return (byte) 0x39;
       case U157: return (byte) 0xb9;
       case U158: return (byte) 0x79;
@@ -485,31 +496,31 @@ public class Bytes implements I_Bytes {
       case U164: return (byte) 0x25;
       case U165: return (byte) 0xa5;
       case U166: return (byte) 0x65;
-      case U167: return (byte) 0xd5;
+      case U167: return (byte) 0xe5;
       case U168: return (byte) 0x15;
       case U169: return (byte) 0x95;
       case U170: return (byte) 0x55;
-      case U171: return (byte) 0xe5;
+      case U171: return (byte) 0xd5;
       case U172: return (byte) 0x35;
       case U173: return (byte) 0xb5;
       case U174: return (byte) 0x75;
       case U175: return (byte) 0xf5;
-      case U176: return (byte) 0x0e;
-      case U177: return (byte) 0x8e;
-      case U178: return (byte) 0x4e;
-      case U179: return (byte) 0xce;
-      case U180: return (byte) 0x2e;
-      case U181: return (byte) 0xae;
-      case U182: return (byte) 0x6e;
-      case U183: return (byte) 0xde;
-      case U184: return (byte) 0x1e;
-      case U185: return (byte) 0x9e;
-      case U186: return (byte) 0x5e;
-      case U187: return (byte) 0xee;
-      case U188: return (byte) 0x3e;
-      case U189: return (byte) 0xbe;
-      case U190: return (byte) 0x7e;
-      case U191: return (byte) 0xfe;
+      case U176: return (byte) 0x0d;
+      case U177: return (byte) 0x8d;
+      case U178: return (byte) 0x4d;
+      case U179: return (byte) 0xcd;
+      case U180: return (byte) 0x2d;
+      case U181: return (byte) 0xad;
+      case U182: return (byte) 0x6d;
+      case U183: return (byte) 0xed;
+      case U184: return (byte) 0x1d;
+      case U185: return (byte) 0x9d;
+      case U186: return (byte) 0x5d;
+      case U187: return (byte) 0xdd;
+      case U188: return (byte) 0x3d;
+      case U189: return (byte) 0xbd;
+      case U190: return (byte) 0x7d;
+      case U191: return (byte) 0xfd;
       case U192: return (byte) 0x03;
       case U193: return (byte) 0x83;
       case U194: return (byte) 0x43;
@@ -517,11 +528,11 @@ public class Bytes implements I_Bytes {
       case U196: return (byte) 0x23;
       case U197: return (byte) 0xa3;
       case U198: return (byte) 0x63;
-      case U199: return (byte) 0xd3;
+      case U199: return (byte) 0xe3;
       case U200: return (byte) 0x13;
       case U201: return (byte) 0x93;
       case U202: return (byte) 0x53;
-      case U203: return (byte) 0xe3;
+      case U203: return (byte) 0xd3;
       case U204: return (byte) 0x33;
       case U205: return (byte) 0xb3;
       case U206: return (byte) 0x73;
@@ -533,11 +544,11 @@ public class Bytes implements I_Bytes {
       case U212: return (byte) 0x2b;
       case U213: return (byte) 0xab;
       case U214: return (byte) 0x6b;
-      case U215: return (byte) 0xdb;
+      case U215: return (byte) 0xeb;
       case U216: return (byte) 0x1b;
       case U217: return (byte) 0x9b;
       case U218: return (byte) 0x5b;
-      case U219: return (byte) 0xeb;
+      case U219: return (byte) 0xdb;
       case U220: return (byte) 0x3b;
       case U221: return (byte) 0xbb;
       case U222: return (byte) 0x7b;
@@ -549,11 +560,11 @@ public class Bytes implements I_Bytes {
       case U228: return (byte) 0x27;
       case U229: return (byte) 0xa7;
       case U230: return (byte) 0x67;
-      case U231: return (byte) 0xd7;
+      case U231: return (byte) 0xe7;
       case U232: return (byte) 0x17;
       case U233: return (byte) 0x97;
       case U234: return (byte) 0x57;
-      case U235: return (byte) 0xe7;
+      case U235: return (byte) 0xd7;
       case U236: return (byte) 0x37;
       case U237: return (byte) 0xb7;
       case U238: return (byte) 0x77;
@@ -565,11 +576,11 @@ public class Bytes implements I_Bytes {
       case U244: return (byte) 0x2f;
       case U245: return (byte) 0xaf;
       case U246: return (byte) 0x6f;
-      case U247: return (byte) 0xdf;
+      case U247: return (byte) 0xef;
       case U248: return (byte) 0x1f;
       case U249: return (byte) 0x9f;
       case U250: return (byte) 0x5f;
-      case U251: return (byte) 0xef;
+      case U251: return (byte) 0xdf;
       case U252: return (byte) 0x3f;
       case U253: return (byte) 0xbf;
       case U254: return (byte) 0x7f;
@@ -578,14 +589,217 @@ public class Bytes implements I_Bytes {
     }
   }
   
+  /**
+   * 
+   * @param b
+   * @return a copy of the bytes with all of the bits in the reverse order.
+   */
   public byte[] reverse(byte[] b) {
     byte [] r = new byte[b.length];
     for (int i = 0; i < r.length; i++) {
-      r[r.length - 0] = reverse(b[i]);
+      r[r.length - 1 - i] = reverse(b[i]);
     }
     return r;
   }
   
+  /**
+   * Concatenates the parts without copying them.
+   * @param parts
+   * @return a immutable I_Bytes which references the parts, see {@link BytesRope}.
+   */
+  public static I_Bytes concat(I_Bytes... parts) {
+    I_Bytes r = BytesRope.concat(parts);
+    BytesMetrics.bytesShared(r.size());
+    return r;
+  }
+
+  /**
+   * 
+   * @param a
+   * @param b
+   * @return true when a and b have the same size and the same bytes
+   */
+  public static boolean contentEquals(I_Bytes a, I_Bytes b) {
+    int n = a.size();
+    if (n != b.size()) {
+      return false;
+    }
+    byte[] aArray = BytesComparator.array(a);
+    byte[] bArray = BytesComparator.array(b);
+    if (aArray != null && bArray != null) {
+      int aStart = BytesComparator.start(a);
+      int bStart = BytesComparator.start(b);
+      for (int i = 0; i < n; i++) {
+        if (aArray[aStart + i] != bArray[bStart + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+    for (int i = 0; i < n; i++) {
+      if (a.get(i) != b.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @return a hash code of the content of the bytes, 
+   *   which is the same as {@link java.util.Arrays#hashCode(byte[])}.
+   */
+  public static int contentHash(I_Bytes bytes) {
+    int n = bytes.size();
+    int r = 1;
+    byte[] array = BytesComparator.array(bytes);
+    if (array != null) {
+      int start = BytesComparator.start(bytes);
+      for (int i = 0; i < n; i++) {
+        r = 31 * r + array[start + i];
+      }
+      return r;
+    }
+    for (int i = 0; i < n; i++) {
+      r = 31 * r + bytes.get(i);
+    }
+    return r;
+  }
+
+  /**
+   * Copies bytes from any I_Bytes into a byte array, using 
+   * System.arraycopy when the I_Bytes is backed by byte arrays
+   * from this package, and falling back to {@link I_Bytes#get(int)}
+   * otherwise.
+   * 
+   * @param from the source
+   * @param start the first index in the source to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   */
+  public static void copy(I_Bytes from, int start, byte[] to, int toOffset, int length) {
+    if (from instanceof Bytes) {
+      ((Bytes) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof BytesView) {
+      ((BytesView) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof BytesMutant) {
+      ((BytesMutant) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof BytesRope) {
+      ((BytesRope) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof BytesSlice) {
+      ((BytesSlice) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof TransformedBytes) {
+      ((TransformedBytes) from).copyTo(start, to, toOffset, length);
+    } else if (from instanceof ZeroBytes) {
+      Arrays.fill(to, toOffset, toOffset + length, (byte) 0);
+    } else {
+      for (int i = 0; i < length; i++) {
+        to[toOffset + i] = from.get(start + i);
+      }
+      BytesMetrics.bytesCopied(length);
+    }
+  }
+  
+  /**
+   * Visits the byte arrays of the range of bytes in order, 
+   * I_Bytes which are NOT backed by arrays in this package are copied
+   * into a small buffer.
+   * @param bytes
+   * @param start
+   * @param end
+   * @param visitor
+   */
+  static void forEachSegment(I_Bytes bytes, int start, int end, SegmentVisitor visitor) {
+    if (start >= end) {
+      return;
+    }
+    if (bytes instanceof Bytes) {
+      visitor.visit(((Bytes) bytes).bytes, start, end);
+    } else if (bytes instanceof BytesView) {
+      BytesView view = (BytesView) bytes;
+      visitor.visit(view.getArray(), view.getStart() + start, view.getStart() + end);
+    } else if (bytes instanceof BytesMutant) {
+      ((BytesMutant) bytes).forEachSegment(start, end, visitor);
+    } else if (bytes instanceof BytesRope) {
+      ((BytesRope) bytes).forEachSegment(start, end, visitor);
+    } else if (bytes instanceof BytesSlice) {
+      BytesSlice slice = (BytesSlice) bytes;
+      forEachSegment(slice.getBytes(), slice.getStart() + start, slice.getStart() + end, visitor);
+    } else if (bytes instanceof ZeroBytes) {
+      while (start < end) {
+        int n = Math.min(end - start, ZeroBytes.ZEROS.length);
+        visitor.visit(ZeroBytes.ZEROS, 0, n);
+        start += n;
+      }
+    } else {
+      byte[] buffer = new byte[Math.min(end - start, 256)];
+      while (start < end) {
+        int n = Math.min(end - start, buffer.length);
+        copy(bytes, start, buffer, 0, n);
+        visitor.visit(buffer, 0, n);
+        start += n;
+      }
+    }
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @param start
+   * @param end
+   * @return a I_Bytes which shares the bytes from start until end
+   *   without copying them, BytesMutants are frozen first so that 
+   *   the slice does NOT change, other I_Bytes are shared as they are.
+   */
+  public static I_Bytes slice(I_Bytes bytes, int start, int end) {
+    if (start > end) {
+      throw new IllegalArgumentException(BytesView.START_END_EXCEPTION_1 + start + 
+          BytesView.START_END_EXCEPTION_2 + end);
+    }
+    if (start < 0 || end > bytes.size()) {
+      throw new IllegalArgumentException(BytesView.END_EXCEPTION_1 + end + 
+          BytesView.END_EXCEPTION_2 + bytes.size());
+    }
+    BytesMetrics.bytesShared(end - start);
+    return view(snapshot(bytes), start, end);
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @return bytes which will NOT change, BytesMutants are frozen 
+   *   (which shares their chunks) the other I_Bytes are returned.
+   */
+  static I_Bytes snapshot(I_Bytes bytes) {
+    if (bytes instanceof BytesMutant) {
+      return ((BytesMutant) bytes).share();
+    }
+    return bytes;
+  }
+
+  /**
+   * The same as {@link #slice(I_Bytes, int, int)} without checks 
+   * or metrics, for use in this package.
+   */
+  static I_Bytes view(I_Bytes bytes, int start, int end) {
+    if (start == 0 && end == bytes.size()) {
+      return bytes;
+    }
+    if (bytes instanceof Bytes) {
+      return new BytesView(((Bytes) bytes).bytes, start, end);
+    } else if (bytes instanceof BytesView) {
+      return ((BytesView) bytes).view(start, end);
+    } else if (bytes instanceof BytesRope) {
+      return ((BytesRope) bytes).view(start, end);
+    } else if (bytes instanceof BytesSlice) {
+      BytesSlice slice = (BytesSlice) bytes;
+      return new BytesSlice(slice.getBytes(), slice.getStart() + start, slice.getStart() + end);
+    }
+    return new BytesSlice(bytes, start, end);
+  }
+
   public static void main(String[] args) {
     System.out.println(Byte.toUnsignedInt(U0));
     System.out.println(Byte.toUnsignedInt(U16));
@@ -648,6 +862,22 @@ public class Bytes implements I_Bytes {
     return bytes[i];
   }
 
+  byte[] getArray() {
+    return bytes;
+  }
+
+  /**
+   * Copies a range of these bytes into the byte array.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   */
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    System.arraycopy(bytes, start, to, toOffset, length);
+    BytesMetrics.bytesCopied(length);
+  }
+
   public int size() {
     return bytes.length;
   }
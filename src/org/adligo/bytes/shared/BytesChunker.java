@@ -0,0 +1,278 @@
+package org.adligo.bytes.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class splits a stream of bytes into variable sized chunks at
+ * content defined boundaries, with the
+ * {@link <a href="https://www.usenix.org/conference/atc16/technical-sessions/presentation/xia">FastCDC</a>}
+ * algorithm, so that inserting or removing bytes only changes the 
+ * chunks near the change, which allows the chunks to be deduplicated.<br/>
+ *   The bytes are added incrementally, the Gear hash and the size of the
+ * current chunk are carried across the added I_Bytes, BytesMutant chunks
+ * and BigBytes leaves, which are read a segment (byte array) at a time.
+ * Each chunk is passed to the consumer as a view (or a BytesRope of views)
+ * of the added bytes, without copying them.  Chunks are never smaller
+ * than the minimum size (except the last chunk) or bigger than the 
+ * maximum size, and are usually about the average size.  The Gear table
+ * is generated from a fixed seed, so the boundaries are the same on 
+ * every JVM and in the browser.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesChunker {
+  public static final int DEFAULT_AVERAGE_SIZE = 8192;
+  public static final int DEFAULT_MAX_SIZE = 65536;
+  public static final int DEFAULT_MIN_SIZE = 2048;
+  public static final String SIZE_EXCEPTION = 
+      "The sizes MUST be 1 <= min < average < max and the average MUST be a power of 2, not ";
+  /**
+   * A random long for each byte value.
+   */
+  private static final long[] GEAR = gear(0x6164696c676f4344L);
+
+  /**
+   * The number of bytes in the current chunk.
+   */
+  private int chunkSize;
+  private final Consumer<I_Bytes> consumer;
+  /**
+   * The Gear hash, which only depends on the last 64 bytes.
+   */
+  private long hash;
+  /**
+   * The mask used after the average size, which has fewer bits
+   * so that a boundary is more likely.
+   */
+  private final long largeMask;
+  private final int averageSize;
+  private final int maxSize;
+  private final int minSize;
+  /**
+   * The parts of the current chunk from the previous calls to add.
+   */
+  private final List<I_Bytes> pending = new ArrayList<I_Bytes>();
+  /**
+   * The mask used before the average size, which has more bits
+   * so that a boundary is less likely.
+   */
+  private final long smallMask;
+
+  public BytesChunker(Consumer<I_Bytes> consumer) {
+    this(DEFAULT_MIN_SIZE, DEFAULT_AVERAGE_SIZE, DEFAULT_MAX_SIZE, consumer);
+  }
+
+  /**
+   * 
+   * @param minSize the minimum size of a chunk, except the last chunk
+   * @param averageSize the average size of the chunks, a power of 2
+   * @param maxSize the maximum size of a chunk
+   * @param consumer which receives the chunks in order
+   */
+  public BytesChunker(int minSize, int averageSize, int maxSize, Consumer<I_Bytes> consumer) {
+    if (minSize < 1 || minSize >= averageSize || averageSize >= maxSize ||
+        Integer.bitCount(averageSize) != 1) {
+      throw new IllegalArgumentException(SIZE_EXCEPTION + minSize + ", " + averageSize + 
+          ", " + maxSize);
+    }
+    this.consumer = Objects.requireNonNull(consumer);
+    this.minSize = minSize;
+    this.averageSize = averageSize;
+    this.maxSize = maxSize;
+    int bits = Integer.numberOfTrailingZeros(averageSize);
+    //normalized chunking level 2, uses the high bits of the hash 
+    //since they depend on the most bytes
+    this.smallMask = mask(bits + 2);
+    this.largeMask = mask(Math.max(1, bits - 2));
+  }
+
+  /**
+   * Adds the bytes, passing any chunks that end in them to the consumer.
+   * The chunks share the bytes, so they MUST NOT be changed, 
+   * BytesMutants are frozen so that they may be cleared.
+   * @param bytes
+   */
+  public void add(I_Bytes bytes) {
+    if (bytes instanceof BytesMutant) {
+      bytes = ((BytesMutant) bytes).share();
+    }
+    int size = bytes.size();
+    Scanner scanner = new Scanner(bytes);
+    Bytes.forEachSegment(bytes, 0, size, scanner);
+    if (scanner.chunkStart < size) {
+      pending.add(Bytes.view(bytes, scanner.chunkStart, size));
+    }
+  }
+
+  /**
+   * Adds the bytes one leaf at a time, see {@link #add(I_Bytes)}.
+   * @param bytes
+   */
+  public void add(AbstractBigBytes bytes) {
+    long leafCount = bytes.getLeafCount();
+    for (long i = 0; i < leafCount; i++) {
+      add(bytes.getLeaf(i));
+    }
+  }
+
+  /**
+   * Passes the remaining bytes to the consumer as the last chunk,
+   * after which this chunker may be reused.
+   */
+  public void finish() {
+    if (!pending.isEmpty()) {
+      emit();
+    }
+  }
+
+  public int getAverageSize() {
+    return averageSize;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public int getMinSize() {
+    return minSize;
+  }
+
+  private void emit() {
+    I_Bytes chunk = BytesRope.concat(pending.toArray(new I_Bytes[pending.size()]));
+    pending.clear();
+    chunkSize = 0;
+    hash = 0;
+    BytesMetrics.bytesShared(chunk.size());
+    consumer.accept(chunk);
+  }
+
+  /**
+   * Scans the added bytes in a single pass, a segment at a time, 
+   * passing each chunk to the consumer as soon as its boundary is found.
+   */
+  private final class Scanner implements SegmentVisitor {
+    private final I_Bytes bytes;
+    /**
+     * The index in the I_Bytes of the first byte of the current chunk.
+     */
+    private int chunkStart;
+    /**
+     * The index in the I_Bytes of the start of the next segment.
+     */
+    private int position;
+
+    private Scanner(I_Bytes bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public void visit(byte[] array, int start, int end) {
+      int offset = position - start;
+      position += end - start;
+      int i = start;
+      while (i < end) {
+        int boundary = scan(array, i, end);
+        if (boundary == -1) {
+          return;
+        }
+        int chunkEnd = offset + boundary;
+        pending.add(Bytes.view(bytes, chunkStart, chunkEnd));
+        chunkStart = chunkEnd;
+        emit();
+        i = boundary;
+      }
+    }
+  }
+
+  /**
+   * Updates the hash and chunk size with the bytes of the array.
+   * @param array
+   * @param start
+   * @param end
+   * @return the index in the array after the next boundary, or -1 if there 
+   *   is no boundary before the end.
+   */
+  private int scan(byte[] array, int start, int end) {
+    int i = start;
+    if (chunkSize < minSize) {
+      //the bytes before the minimum size are NOT hashed
+      int skip = Math.min(end - i, minSize - chunkSize);
+      i += skip;
+      chunkSize += skip;
+    }
+    long h = hash;
+    int size = chunkSize;
+    int smallEnd = Math.min(end, i + Math.max(0, averageSize - size));
+    for (; i < smallEnd; i++) {
+      h = (h << 1) + GEAR[array[i] & 0xff];
+      size++;
+      if ((h & smallMask) == 0) {
+        return i + 1;
+      }
+    }
+    int largeEnd = Math.min(end, i + (maxSize - size));
+    for (; i < largeEnd; i++) {
+      h = (h << 1) + GEAR[array[i] & 0xff];
+      size++;
+      if ((h & largeMask) == 0) {
+        return i + 1;
+      }
+    }
+    hash = h;
+    chunkSize = size;
+    if (size == maxSize) {
+      return i;
+    }
+    return -1;
+  }
+
+  /**
+   * 
+   * @param seed
+   * @return 256 random longs from the SplitMix64 generator
+   */
+  private static long[] gear(long seed) {
+    long[] r = new long[256];
+    long x = seed;
+    for (int i = 0; i < r.length; i++) {
+      x += 0x9e3779b97f4a7c15L;
+      long z = x;
+      z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+      z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+      r[i] = z ^ (z >>> 31);
+    }
+    return r;
+  }
+
+  /**
+   * 
+   * @param bits
+   * @return a mask with the highest bits set
+   */
+  private static long mask(int bits) {
+    return -1L << (64 - bits);
+  }
+}
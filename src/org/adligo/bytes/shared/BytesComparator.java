@@ -0,0 +1,154 @@
+package org.adligo.bytes.shared;
+
+import java.util.Comparator;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class compares I_Bytes in unsigned lexicographic order
+ * (i.e. 0x7f is before 0x80 and a shorter key is before a longer key
+ * with the same bytes).  The first 8 bytes are compared as a 
+ * big endian long {@link #prefix(I_Bytes)}, which can be cached by the caller
+ * (i.e. {@link BytesSort}) and passed to
+ * {@link #compare(I_Bytes, long, I_Bytes, long)}. <br/>
+ *   I_Bytes backed by a single array (Bytes, BytesView) are read
+ * directly from the array.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesComparator implements Comparator<I_Bytes> {
+  public static final BytesComparator INSTANCE = new BytesComparator();
+  /**
+   * The number of bytes in a prefix.
+   */
+  public static final int PREFIX_SIZE = 8;
+
+  /**
+   * 
+   * @param bytes
+   * @return the first 8 bytes as a big endian long, 
+   *   padded with zeros when there are less than 8 bytes.
+   */
+  public static long prefix(I_Bytes bytes) {
+    int n = Math.min(PREFIX_SIZE, bytes.size());
+    long r = 0;
+    byte[] array = array(bytes);
+    if (array != null) {
+      int start = start(bytes);
+      for (int i = 0; i < n; i++) {
+        r = (r << 8) | (array[start + i] & 0xff);
+      }
+    } else {
+      for (int i = 0; i < n; i++) {
+        r = (r << 8) | (bytes.get(i) & 0xff);
+      }
+    }
+    return r << (8 * (PREFIX_SIZE - n));
+  }
+
+  /**
+   * Compares two prefixes as unsigned longs.
+   * @param a
+   * @param b
+   * @return
+   */
+  public static int comparePrefix(long a, long b) {
+    return Long.compare(a + Long.MIN_VALUE, b + Long.MIN_VALUE);
+  }
+
+  @Override
+  public int compare(I_Bytes a, I_Bytes b) {
+    return compare(a, prefix(a), b, prefix(b));
+  }
+
+  /**
+   * 
+   * @param a
+   * @param aPrefix the {@link #prefix(I_Bytes)} of a
+   * @param b
+   * @param bPrefix the {@link #prefix(I_Bytes)} of b
+   * @return
+   */
+  public int compare(I_Bytes a, long aPrefix, I_Bytes b, long bPrefix) {
+    if (aPrefix != bPrefix) {
+      return comparePrefix(aPrefix, bPrefix);
+    }
+    return compareFrom(a, b, PREFIX_SIZE);
+  }
+
+  /**
+   * 
+   * @param a
+   * @param b
+   * @param from the index to start comparing, the bytes before
+   *   from MUST be the same
+   * @return
+   */
+  static int compareFrom(I_Bytes a, I_Bytes b, int from) {
+    int n = Math.min(a.size(), b.size());
+    byte[] aArray = array(a);
+    byte[] bArray = array(b);
+    if (aArray != null && bArray != null) {
+      int aStart = start(a);
+      int bStart = start(b);
+      for (int i = from; i < n; i++) {
+        int c = (aArray[aStart + i] & 0xff) - (bArray[bStart + i] & 0xff);
+        if (c != 0) {
+          return c;
+        }
+      }
+    } else {
+      for (int i = from; i < n; i++) {
+        int c = (a.get(i) & 0xff) - (b.get(i) & 0xff);
+        if (c != 0) {
+          return c;
+        }
+      }
+    }
+    return Integer.compare(a.size(), b.size());
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @return the array backing the bytes or null
+   */
+  static byte[] array(I_Bytes bytes) {
+    if (bytes instanceof BytesView) {
+      return ((BytesView) bytes).getArray();
+    } else if (bytes instanceof Bytes) {
+      return ((Bytes) bytes).getArray();
+    }
+    return null;
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @return the start of the bytes in {@link #array(I_Bytes)}
+   */
+  static int start(I_Bytes bytes) {
+    if (bytes instanceof BytesView) {
+      return ((BytesView) bytes).getStart();
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,553 @@
+package org.adligo.bytes.shared;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class encodes the difference between a base version and a new
+ * (target) version of some bytes as a delta, which is usually much
+ * smaller than the target when only a few ranges have changed.<br/>
+ *   The base is indexed once by the hash of each of it's blocks, 
+ * then each target is scanned with a rolling hash, so that any block of
+ * the base is found at any position in the target.  Matches are extended
+ * forward and (by up to one block) backward.  The delta has
+ * the following format (all numbers are unsigned LEB128 varints);
+ * <pre><code>
+ * header   the base size and the target size
+ * COPY     the byte 1, the base offset and the length
+ * INSERT   the byte 2, the length and then the literal bytes
+ * </code></pre>
+ * The apply methods rebuild the target by sharing slices of the base 
+ * and of the delta, instead of copying them (BytesMutants are frozen first).
+ * After it is constructed a BytesDelta may encode targets from
+ * multiple threads, as long as the base does NOT change.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesDelta {
+  public static final String BLOCK_COUNT_EXCEPTION = 
+      "The base has too many blocks, use a bigger block size, not ";
+  public static final String BLOCK_SIZE_EXCEPTION = "The block size MUST be at least 4, not ";
+  public static final String CORRUPT_DELTA = "The delta is corrupt at ";
+  public static final byte COPY = 1;
+  public static final int DEFAULT_BLOCK_SIZE = 32;
+  public static final byte INSERT = 2;
+  private static final int MAX_BLOCKS = 1 << 29;
+  private static final int PRIME = 0x01000193;
+
+  /**
+   * The bytes of a I_Bytes or a AbstractBigBytes.
+   */
+  private static final class Source {
+    private final AbstractBigBytes big;
+    private final I_Bytes bytes;
+    private I_Bytes leaf;
+    private long leafIndex = -1;
+
+    private Source(I_Bytes bytes) {
+      this.big = null;
+      this.bytes = bytes;
+    }
+
+    private Source(AbstractBigBytes big) {
+      this.big = big;
+      this.bytes = null;
+    }
+
+    private void copyTo(long start, byte[] to, int toOffset, int length) {
+      if (big == null) {
+        Bytes.copy(bytes, (int) start, to, toOffset, length);
+      } else {
+        big.copyTo(start, to, toOffset, length);
+      }
+    }
+
+    private void forEachSegment(long start, long end, SegmentVisitor visitor) {
+      if (big == null) {
+        Bytes.forEachSegment(bytes, (int) start, (int) end, visitor);
+      } else {
+        big.forEachSegment(start, end, visitor);
+      }
+    }
+
+    private byte get(long i) {
+      if (big == null) {
+        return bytes.get((int) i);
+      }
+      long li = i / big.getLeafSize();
+      if (li != leafIndex) {
+        leaf = big.getLeaf(li);
+        leafIndex = li;
+      }
+      return leaf.get((int) (i % big.getLeafSize()));
+    }
+
+    /**
+     * 
+     * @return a new Source of the same bytes, with it's own leaf cursor.
+     */
+    private Source copy() {
+      return big == null ? new Source(bytes) : new Source(big);
+    }
+
+    private long size() {
+      return big == null ? bytes.size() : big.size();
+    }
+  }
+
+  /**
+   * Hashes each whole block of the base into the table.
+   */
+  private final class Indexer implements SegmentVisitor {
+    private int filled;
+    private int hash;
+    private long position;
+
+    @Override
+    public void visit(byte[] array, int start, int end) {
+      for (int i = start; i < end; i++) {
+        hash = hash * PRIME + array[i];
+        position++;
+        if (++filled == blockSize) {
+          put(hash, position - blockSize);
+          filled = 0;
+          hash = 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Scans the target with a rolling hash of the last blockSize bytes,
+   * and then compares the following bytes with the base
+   * after a block matches.
+   */
+  private final class Encoder implements SegmentVisitor {
+    /**
+     * The base with a leaf cursor for this encoding only.
+     */
+    private final Source base = BytesDelta.this.base.copy();
+    private long baseNext;
+    private long copyBase;
+    private long copyStart;
+    private int filled;
+    private int hash;
+    private long literalStart;
+    private boolean matching;
+    private final BytesMutant out;
+    private long position;
+    private final Source target;
+    private final byte[] window = new byte[blockSize];
+
+    private Encoder(Source target, BytesMutant out) {
+      this.out = out;
+      this.target = target;
+    }
+
+    @Override
+    public void visit(byte[] array, int start, int end) {
+      for (int i = start; i < end; i++) {
+        byte b = array[i];
+        if (matching) {
+          if (baseNext < base.size() && base.get(baseNext) == b) {
+            baseNext++;
+            position++;
+            continue;
+          }
+          writeCopy(out, copyBase, position - copyStart);
+          matching = false;
+          literalStart = position;
+          filled = 0;
+          hash = 0;
+        }
+        int slot = (int) (position % blockSize);
+        if (filled == blockSize) {
+          hash = (hash - window[slot] * power) * PRIME + b;
+        } else {
+          hash = hash * PRIME + b;
+          filled++;
+        }
+        window[slot] = b;
+        position++;
+        if (filled == blockSize) {
+          match();
+        }
+      }
+    }
+
+    private void finish() {
+      if (matching) {
+        writeCopy(out, copyBase, position - copyStart);
+      } else if (position > literalStart) {
+        writeInsert(out, target, literalStart, position);
+      }
+    }
+
+    private void match() {
+      long blockStart = position - blockSize;
+      long candidate = find(hash);
+      if (candidate < 0) {
+        return;
+      }
+      for (int i = 0; i < blockSize; i++) {
+        if (base.get(candidate + i) != window[(int) ((blockStart + i) % blockSize)]) {
+          return;
+        }
+      }
+      int back = 0;
+      long maxBack = Math.min(blockSize, Math.min(blockStart - literalStart, candidate));
+      while (back < maxBack && 
+          base.get(candidate - back - 1) == target.get(blockStart - back - 1)) {
+        back++;
+      }
+      if (blockStart - back > literalStart) {
+        writeInsert(out, target, literalStart, blockStart - back);
+      }
+      copyStart = blockStart - back;
+      copyBase = candidate - back;
+      baseNext = candidate + blockSize;
+      matching = true;
+    }
+  }
+
+  /**
+   * Splits the parts of the target into leaves.
+   */
+  private static final class LeafBuilder {
+    private final int leafSize;
+    private final List<I_Bytes> leaves;
+    private final List<I_Bytes> parts = new ArrayList<I_Bytes>();
+    private int partsSize;
+
+    private LeafBuilder(int leafSize, List<I_Bytes> leaves) {
+      this.leafSize = leafSize;
+      this.leaves = leaves;
+    }
+
+    private void add(I_Bytes part) {
+      int start = 0;
+      while (start < part.size()) {
+        int n = Math.min(part.size() - start, leafSize - partsSize);
+        parts.add(Bytes.view(part, start, start + n));
+        partsSize += n;
+        start += n;
+        if (partsSize == leafSize) {
+          flush();
+        }
+      }
+    }
+
+    private void flush() {
+      if (partsSize > 0) {
+        leaves.add(BytesRope.concat(parts.toArray(new I_Bytes[parts.size()])));
+        parts.clear();
+        partsSize = 0;
+      }
+    }
+  }
+
+  private final Source base;
+  private final int blockSize;
+  /**
+   * The hashes of the blocks in the open addressing table.
+   */
+  private final int[] hashes;
+  /**
+   * The base positions of the blocks in the open addressing table, -1 is empty.
+   */
+  private final long[] positions;
+  /**
+   * PRIME to the power of blockSize - 1, to remove the oldest byte
+   * from the rolling hash.
+   */
+  private final int power;
+
+  public BytesDelta(I_Bytes base) {
+    this(base, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * 
+   * @param base
+   * @param blockSize the size of the indexed blocks, the smallest 
+   *   range that can be copied from the base.
+   */
+  public BytesDelta(I_Bytes base, int blockSize) {
+    this(new Source(base), blockSize);
+  }
+
+  public BytesDelta(AbstractBigBytes base) {
+    this(base, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * 
+   * @param base
+   * @param blockSize the size of the indexed blocks, the smallest 
+   *   range that can be copied from the base.
+   */
+  public BytesDelta(AbstractBigBytes base, int blockSize) {
+    this(new Source(base), blockSize);
+  }
+
+  private BytesDelta(Source base, int blockSize) {
+    if (blockSize < 4) {
+      throw new IllegalArgumentException(BLOCK_SIZE_EXCEPTION + blockSize);
+    }
+    long blocks = base.size() / blockSize;
+    if (blocks > MAX_BLOCKS) {
+      throw new IllegalArgumentException(BLOCK_COUNT_EXCEPTION + blockSize);
+    }
+    this.base = base;
+    this.blockSize = blockSize;
+    int capacity = 2;
+    while (capacity < blocks * 2) {
+      capacity = capacity << 1;
+    }
+    this.hashes = new int[capacity];
+    this.positions = new long[capacity];
+    Arrays.fill(positions, -1L);
+    int p = 1;
+    for (int i = 1; i < blockSize; i++) {
+      p = p * PRIME;
+    }
+    this.power = p;
+    base.forEachSegment(0, blocks * blockSize, new Indexer());
+  }
+
+  /**
+   * Adds the delta from the base to the target to the out.
+   * @param target
+   * @param out
+   */
+  public void encode(I_Bytes target, BytesMutant out) {
+    encode(new Source(target), out);
+  }
+
+  /**
+   * Adds the delta from the base to the target to the out.
+   * @param target
+   * @param out
+   */
+  public void encode(AbstractBigBytes target, BytesMutant out) {
+    encode(new Source(target), out);
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * 
+   * @param base
+   * @param delta
+   * @return the target, which shares the bytes of the base and the delta.
+   * @throws IllegalArgumentException if the delta is corrupt or is NOT from the base
+   */
+  public static I_Bytes apply(I_Bytes base, I_Bytes delta) {
+    List<I_Bytes> parts = new ArrayList<I_Bytes>();
+    long size = apply(new Source(Bytes.snapshot(base)), Bytes.snapshot(delta), parts, null);
+    I_Bytes r = BytesRope.concat(parts.toArray(new I_Bytes[parts.size()]));
+    BytesMetrics.bytesShared(size);
+    return r;
+  }
+
+  /**
+   * 
+   * @param base
+   * @param delta
+   * @return the target, with the same fan out and leaf size as the base,
+   *   which shares the bytes of the base and the delta.
+   * @throws IllegalArgumentException if the delta is corrupt or is NOT from the base
+   */
+  public static BigBytes apply(AbstractBigBytes base, I_Bytes delta) {
+    List<I_Bytes> leaves = new ArrayList<I_Bytes>();
+    long size = apply(new Source(base), Bytes.snapshot(delta), leaves, base);
+    BigBytes r = new BigBytes(base.getFanOut(), base.getLeafSize(), leaves);
+    BytesMetrics.bytesShared(size);
+    return r;
+  }
+
+  /**
+   * 
+   * @param base
+   * @param delta
+   * @param out the parts of the target, or the leaves of the target
+   *   when the big base is NOT null
+   * @param big
+   * @return the size of the target
+   */
+  private static long apply(Source base, I_Bytes delta, List<I_Bytes> out, 
+      AbstractBigBytes big) {
+    long[] cursor = new long[1];
+    long baseSize = readVarint(delta, cursor);
+    long targetSize = readVarint(delta, cursor);
+    if (baseSize != base.size() || (big == null && targetSize > Integer.MAX_VALUE)) {
+      throw new IllegalArgumentException(CORRUPT_DELTA + 0);
+    }
+    LeafBuilder leaves = big == null ? null : new LeafBuilder(big.getLeafSize(), out);
+    long size = 0;
+    while (cursor[0] < delta.size()) {
+      int at = (int) cursor[0];
+      byte op = delta.get(at);
+      cursor[0]++;
+      if (op == COPY) {
+        long from = readVarint(delta, cursor);
+        long length = readVarint(delta, cursor);
+        if (from < 0 || length < 0 || from > baseSize - length) {
+          throw new IllegalArgumentException(CORRUPT_DELTA + at);
+        }
+        size += length;
+        while (length > 0) {
+          I_Bytes part;
+          if (big == null) {
+            part = Bytes.view(base.bytes, (int) from, (int) (from + length));
+          } else {
+            //one base leaf at a time
+            long leafIndex = from / big.getLeafSize();
+            int leafOffset = (int) (from % big.getLeafSize());
+            I_Bytes leaf = Bytes.snapshot(big.getLeaf(leafIndex));
+            int n = (int) Math.min(length, leaf.size() - leafOffset);
+            part = Bytes.view(leaf, leafOffset, leafOffset + n);
+          }
+          add(part, out, leaves);
+          from += part.size();
+          length -= part.size();
+        }
+      } else if (op == INSERT) {
+        long length = readVarint(delta, cursor);
+        if (length < 0 || cursor[0] + length > delta.size()) {
+          throw new IllegalArgumentException(CORRUPT_DELTA + at);
+        }
+        int start = (int) cursor[0];
+        add(Bytes.view(delta, start, start + (int) length), out, leaves);
+        cursor[0] += length;
+        size += length;
+      } else {
+        throw new IllegalArgumentException(CORRUPT_DELTA + at);
+      }
+    }
+    if (size != targetSize) {
+      throw new IllegalArgumentException(CORRUPT_DELTA + delta.size());
+    }
+    if (leaves != null) {
+      leaves.flush();
+    }
+    return size;
+  }
+
+  private static void add(I_Bytes part, List<I_Bytes> out, LeafBuilder leaves) {
+    if (leaves == null) {
+      out.add(part);
+    } else {
+      leaves.add(part);
+    }
+  }
+
+  private void encode(Source target, BytesMutant out) {
+    writeVarint(out, base.size());
+    writeVarint(out, target.size());
+    Encoder encoder = new Encoder(target, out);
+    target.forEachSegment(0, target.size(), encoder);
+    encoder.finish();
+  }
+
+  /**
+   * 
+   * @param hash
+   * @return the position of the block with the hash, or -1
+   */
+  private long find(int hash) {
+    int mask = positions.length - 1;
+    for (int i = slot(hash, mask); positions[i] != -1; i = (i + 1) & mask) {
+      if (hashes[i] == hash) {
+        return positions[i];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Only the first block with a hash is kept.
+   * @param hash
+   * @param position
+   */
+  private void put(int hash, long position) {
+    int mask = positions.length - 1;
+    int i = slot(hash, mask);
+    while (positions[i] != -1) {
+      if (hashes[i] == hash) {
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    hashes[i] = hash;
+    positions[i] = position;
+  }
+
+  private static long readVarint(I_Bytes delta, long[] cursor) {
+    long r = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      if (cursor[0] >= delta.size()) {
+        break;
+      }
+      int b = delta.get((int) cursor[0]++);
+      r |= ((long) (b & 0x7f)) << shift;
+      if ((b & 0x80) == 0) {
+        return r;
+      }
+    }
+    throw new IllegalArgumentException(CORRUPT_DELTA + cursor[0]);
+  }
+
+  private static int slot(int hash, int mask) {
+    return ((hash * -1640531535) >>> 16 ^ hash) & mask;
+  }
+
+  private static void writeCopy(BytesMutant out, long from, long length) {
+    out.add(COPY);
+    writeVarint(out, from);
+    writeVarint(out, length);
+  }
+
+  private static void writeInsert(BytesMutant out, Source target, long start, long end) {
+    out.add(INSERT);
+    writeVarint(out, end - start);
+    byte[] buf = new byte[(int) Math.min(4096, end - start)];
+    while (start < end) {
+      int n = (int) Math.min(buf.length, end - start);
+      target.copyTo(start, buf, 0, n);
+      out.add(buf, 0, n);
+      start += n;
+    }
+  }
+
+  private static void writeVarint(BytesMutant out, long value) {
+    while ((value & ~0x7fL) != 0) {
+      out.add((byte) ((value & 0x7f) | 0x80));
+      value = value >>> 7;
+    }
+    out.add((byte) value);
+  }
+}
@@ -0,0 +1,172 @@
+package org.adligo.bytes.shared;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class deduplicates I_Bytes with the same content, by returning a 
+ * canonical immutable BytesView for each distinct content.  The canonical
+ * BytesView has it's own exactly sized copy of the bytes, so it never 
+ * keeps a larger buffer in memory. <br/>
+ *   The number of canonical I_Bytes is bounded, when it is full the least 
+ * recently interned entries are evicted with a 
+ * {@link <a href="https://en.wikipedia.org/wiki/Page_replacement_algorithm#Clock">Clock</a>} 
+ * policy.  The entries are split into stripes by their content hash, and each 
+ * stripe has it's own lock, so this class is threadsafe with little contention.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesInterner {
+  public static final int DEFAULT_STRIPES = 16;
+  public static final String MAX_SIZE_EXCEPTION = "The max size MUST be at least 1, not ";
+  public static final String STRIPES_EXCEPTION = "The stripes MUST be at least 1, not ";
+
+  private static final class Entry {
+    private final Key key;
+    private boolean referenced;
+
+    private Entry(Key key) {
+      this.key = key;
+    }
+  }
+
+  private static final class Key {
+    private final I_Bytes bytes;
+    private final int hash;
+
+    private Key(I_Bytes bytes, int hash) {
+      this.bytes = bytes;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hash == other.hash && Bytes.contentEquals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class Stripe {
+    private final Entry[] clock;
+    private int hand;
+    private final Map<Key, Entry> map;
+    private int size;
+
+    private Stripe(int maxSize) {
+      this.clock = new Entry[maxSize];
+      this.map = new HashMap<Key, Entry>(maxSize * 2);
+    }
+
+    private synchronized I_Bytes intern(Key probe) {
+      Entry e = map.get(probe);
+      if (e != null) {
+        e.referenced = true;
+        BytesMetrics.poolAccess(true);
+        return e.key.bytes;
+      }
+      BytesMetrics.poolAccess(false);
+      int length = probe.bytes.size();
+      byte[] copy = new byte[length];
+      Bytes.copy(probe.bytes, 0, copy, 0, length);
+      e = new Entry(new Key(new BytesView(copy, 0, length), probe.hash));
+      if (size < clock.length) {
+        clock[size++] = e;
+      } else {
+        while (clock[hand].referenced) {
+          clock[hand].referenced = false;
+          hand = (hand + 1) % clock.length;
+        }
+        map.remove(clock[hand].key);
+        clock[hand] = e;
+        hand = (hand + 1) % clock.length;
+      }
+      map.put(e.key, e);
+      return e.key.bytes;
+    }
+
+    private synchronized int size() {
+      return size;
+    }
+  }
+
+  private final Stripe[] stripes;
+
+  public BytesInterner(int maxSize) {
+    this(maxSize, DEFAULT_STRIPES);
+  }
+
+  /**
+   * 
+   * @param maxSize the maximum number of canonical I_Bytes
+   * @param stripes the number of locks
+   */
+  public BytesInterner(int maxSize, int stripes) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException(MAX_SIZE_EXCEPTION + maxSize);
+    }
+    if (stripes < 1) {
+      throw new IllegalArgumentException(STRIPES_EXCEPTION + stripes);
+    }
+    stripes = Math.min(stripes, maxSize);
+    this.stripes = new Stripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      //split the maxSize exactly, the first stripes get the remainder
+      this.stripes[i] = new Stripe(maxSize / stripes + (i < maxSize % stripes ? 1 : 0));
+    }
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @return the canonical immutable I_Bytes with the same content as bytes
+   */
+  public I_Bytes intern(I_Bytes bytes) {
+    int hash = Bytes.contentHash(bytes);
+    int spread = hash ^ (hash >>> 16);
+    Stripe stripe = stripes[(spread & 0x7fffffff) % stripes.length];
+    return stripe.intern(new Key(bytes, hash));
+  }
+
+  /**
+   * 
+   * @return the number of canonical I_Bytes
+   */
+  public int size() {
+    int r = 0;
+    for (int i = 0; i < stripes.length; i++) {
+      r += stripes[i].size();
+    }
+    return r;
+  }
+}
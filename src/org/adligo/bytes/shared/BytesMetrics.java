@@ -0,0 +1,89 @@
+package org.adligo.bytes.shared;
+
+/**
+ * This class holds the optional {@link I_BytesMetricsListener} 
+ * for all of the classes in this package.  It is disabled 
+ * (i.e. the listener is null) by default, in which case the only cost
+ * is a null check. <br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesMetrics {
+  private static volatile I_BytesMetricsListener listener;
+
+  /**
+   * 
+   * @return the listener or null when metrics are disabled.
+   */
+  public static I_BytesMetricsListener getListener() {
+    return listener;
+  }
+
+  /**
+   * 
+   * @param listener the listener or null to disable metrics.
+   */
+  public static void setListener(I_BytesMetricsListener listener) {
+    BytesMetrics.listener = listener;
+  }
+
+  static void bigBytesShape(int dimensions, long leafCount) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onBigBytesShape(dimensions, leafCount);
+    }
+  }
+
+  static void bytesCopied(long length) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onBytesCopied(length);
+    }
+  }
+
+  static void bytesShared(long length) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onBytesShared(length);
+    }
+  }
+
+  static void chunkAllocated(int chunkSize) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onChunkAllocated(chunkSize);
+    }
+  }
+
+  static void chunkRecycled(int chunkSize) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onChunkRecycled(chunkSize);
+    }
+  }
+
+  static void poolAccess(boolean hit) {
+    I_BytesMetricsListener l = listener;
+    if (l != null) {
+      l.onPoolAccess(hit);
+    }
+  }
+}
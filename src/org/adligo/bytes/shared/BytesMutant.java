@@ -1,8 +1,11 @@
 package org.adligo.bytes.shared;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.adligo.i_bytes.shared.I_Bytes;
+
 /**
  * This class provides a mutable counterpart to the Bytes class in this 
  * package.  This class is NOT threadsafe.  
@@ -28,8 +31,9 @@ import java.util.function.Supplier;
  * limitations under the License.
  * </code><pre>
  */
-public class BytesMutant {
+public class BytesMutant implements I_Bytes {
   public static final int DEFAULT_SIZE = 64;
+  public static final String SIZE_EXCEPTION = "The arraysSize and chunkSize MUST be at least 1, not ";
   /**
    * The initial number of byte arrays, and the number of additional 
    * arraySlots that will be added if the byte arrays are needs to grow.
@@ -37,12 +41,237 @@ public class BytesMutant {
   private int arraysSize;
   private int chunkSize;
   private Object[] byteArrays;
+  /**
+   * The number of byte arrays (chunks) which have been allocated
+   * in byteArrays.
+   */
+  private int chunks;
+  /**
+   * The number of chunks that were shared by the last call to freeze,
+   * which can NOT be recycled by clear.
+   */
+  private int frozenChunks;
+  /**
+   * The number of chunks that were kept by the last call to clear,
+   * which have NOT been written again yet.
+   */
+  private int recycledChunks;
+  private int size;
   
   public BytesMutant() {
     this(DEFAULT_SIZE, DEFAULT_SIZE);
   }
   
   public BytesMutant(int arraysSize, int chunkSize) {
+    if (arraysSize < 1 || chunkSize < 1) {
+      throw new IllegalArgumentException(SIZE_EXCEPTION + arraysSize + ", " + chunkSize);
+    }
+    this.arraysSize = arraysSize;
+    this.chunkSize = chunkSize;
     byteArrays = new Object[arraysSize];
   }
+
+  public void add(byte b) {
+    writableChunk()[size % chunkSize] = b;
+    size++;
+  }
+
+  public void add(byte[] bytes, int start, int end) {
+    BytesMetrics.bytesCopied(end - start);
+    while (start < end) {
+      int offset = size % chunkSize;
+      int length = Math.min(end - start, chunkSize - offset);
+      System.arraycopy(bytes, start, writableChunk(), offset, length);
+      start += length;
+      size += length;
+    }
+  }
+
+  public void add(I_Bytes bytes) {
+    int start = 0;
+    int end = bytes.size();
+    while (start < end) {
+      int offset = size % chunkSize;
+      int length = Math.min(end - start, chunkSize - offset);
+      Bytes.copy(bytes, start, writableChunk(), offset, length);
+      start += length;
+      size += length;
+    }
+  }
+
+  /**
+   * Adds zeros, which clears recycled chunks.
+   * @param length the number of zeros to add
+   */
+  public void addZeros(int length) {
+    while (length > 0) {
+      byte[] chunk = writableChunk();
+      int offset = writableOffset();
+      int n = Math.min(length, chunkSize - offset);
+      Arrays.fill(chunk, offset, offset + n, (byte) 0);
+      commitWritable(n);
+      length -= n;
+    }
+  }
+
+  /**
+   * Removes all of the bytes, the allocated chunks are kept 
+   * and recycled for the next bytes, unless they were shared
+   * by {@link #freeze()}.
+   */
+  public void clear() {
+    int recycled = chunks - frozenChunks;
+    System.arraycopy(byteArrays, frozenChunks, byteArrays, 0, recycled);
+    for (int i = recycled; i < chunks; i++) {
+      byteArrays[i] = null;
+    }
+    chunks = recycled;
+    recycledChunks = recycled;
+    frozenChunks = 0;
+    size = 0;
+  }
+
+  /**
+   * Copies a range of these bytes into the byte array.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   * @throws ArrayIndexOutOfBoundsException if the range is bigger than the size
+   */
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    if (start < 0 || length < 0 || start + length > size) {
+      throw new ArrayIndexOutOfBoundsException(start + length);
+    }
+    BytesMetrics.bytesCopied(length);
+    while (length > 0) {
+      int offset = start % chunkSize;
+      int n = Math.min(length, chunkSize - offset);
+      System.arraycopy((byte[]) byteArrays[start / chunkSize], offset, to, toOffset, n);
+      start += n;
+      toOffset += n;
+      length -= n;
+    }
+  }
+
+  /**
+   * Since bytes are only added after the current size, the chunks are 
+   * shared with the returned I_Bytes instead of being copied.
+   * @return a immutable I_Bytes with the current bytes.
+   */
+  public I_Bytes freeze() {
+    I_Bytes r = share();
+    BytesMetrics.bytesShared(r.size());
+    return r;
+  }
+
+  /**
+   * The same as {@link #freeze()} without metrics, for use in this package
+   * where the sharing is reported by the caller.
+   */
+  I_Bytes share() {
+    I_Bytes[] parts = new I_Bytes[(size + chunkSize - 1) / chunkSize];
+    for (int i = 0; i < parts.length; i++) {
+      int end = Math.min(chunkSize, size - i * chunkSize);
+      parts[i] = new BytesView((byte[]) byteArrays[i], 0, end);
+    }
+    frozenChunks = parts.length;
+    return BytesRope.concat(parts);
+  }
+
+  /**
+   * 
+   * @param i
+   * @return
+   * @throws ArrayIndexOutOfBoundsException if the integer is bigger than the size
+   */
+  public byte get(int i) {
+    if (i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    return ((byte[]) byteArrays[i / chunkSize])[i % chunkSize];
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Replaces a byte, the chunks that were shared by {@link #freeze()} are 
+   * copied first so that the frozen I_Bytes does NOT change.
+   * @param i
+   * @param b
+   * @throws ArrayIndexOutOfBoundsException if the integer is bigger than the size
+   */
+  public void set(int i, byte b) {
+    if (i < 0 || i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    int chunk = i / chunkSize;
+    if (chunk < frozenChunks) {
+      //copy all of the frozen chunks once, so later calls don't copy again
+      for (int j = 0; j < frozenChunks; j++) {
+        byte[] copy = new byte[chunkSize];
+        System.arraycopy((byte[]) byteArrays[j], 0, copy, 0, chunkSize);
+        byteArrays[j] = copy;
+        BytesMetrics.chunkAllocated(chunkSize);
+      }
+      BytesMetrics.bytesCopied(((long) frozenChunks) * chunkSize);
+      frozenChunks = 0;
+    }
+    ((byte[]) byteArrays[chunk])[i % chunkSize] = b;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Commits bytes which were written directly to the {@link #writableChunk()}.
+   * @param length
+   */
+  void commitWritable(int length) {
+    size += length;
+  }
+
+  void forEachSegment(int start, int end, SegmentVisitor visitor) {
+    while (start < end) {
+      int offset = start % chunkSize;
+      int n = Math.min(end - start, chunkSize - offset);
+      visitor.visit((byte[]) byteArrays[start / chunkSize], offset, offset + n);
+      start += n;
+    }
+  }
+
+  /**
+   * 
+   * @return the chunk which the next byte will be added to, 
+   *   starting at {@link #writableOffset()}, a chunk that was kept
+   *   by {@link #clear()} is reported as recycled the first time 
+   *   it is returned.
+   */
+  byte[] writableChunk() {
+    int chunk = size / chunkSize;
+    if (chunk == chunks) {
+      addChunk();
+    } else if (recycledChunks > 0 && chunk == chunks - recycledChunks) {
+      recycledChunks--;
+      BytesMetrics.chunkRecycled(chunkSize);
+    }
+    return (byte[]) byteArrays[chunk];
+  }
+
+  int writableOffset() {
+    return size % chunkSize;
+  }
+
+  private void addChunk() {
+    if (chunks == byteArrays.length) {
+      Object[] grown = new Object[byteArrays.length + arraysSize];
+      System.arraycopy(byteArrays, 0, grown, 0, chunks);
+      byteArrays = grown;
+    }
+    byteArrays[chunks++] = new byte[chunkSize];
+    BytesMetrics.chunkAllocated(chunkSize);
+  }
 }
@@ -0,0 +1,219 @@
+package org.adligo.bytes.shared;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a fixed capacity circular buffer, built from 
+ * chunks like the BytesMutant, which are allocated once and reused for the
+ * lifetime of the ring (i.e. a network connection).  Bytes are written at
+ * the write cursor and read from the read cursor with zero copy
+ * {@link #peek(int)} views, space is released with {@link #consume(int)}.
+ * Views MUST NOT be used after the bytes are consumed, since they will 
+ * be overwritten. <br/>
+ *   This class is NOT threadsafe, see SpscBytesRing in the 
+ * org.adligo.bytes.jvm package for a single producer single consumer variant.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesRing {
+  public static final String CAPACITY_EXCEPTION = 
+      "The arraysSize * chunkSize MUST be a positive int, not ";
+  public static final String AVAILABLE_EXCEPTION_1 = "The length ";
+  public static final String AVAILABLE_EXCEPTION_2 = " MUST NOT be more than the available ";
+
+  private final Object[] byteArrays;
+  private final int capacity;
+  private final int chunkSize;
+  private long readPosition;
+  private long writePosition;
+
+  public BytesRing() {
+    this(BytesMutant.DEFAULT_SIZE, BytesMutant.DEFAULT_SIZE);
+  }
+
+  /**
+   * 
+   * @param arraysSize the number of chunks
+   * @param chunkSize the size of each chunk
+   */
+  public BytesRing(int arraysSize, int chunkSize) {
+    long capacity = ((long) arraysSize) * chunkSize;
+    if (arraysSize < 1 || chunkSize < 1 || capacity > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(CAPACITY_EXCEPTION + capacity);
+    }
+    this.capacity = (int) capacity;
+    this.chunkSize = chunkSize;
+    this.byteArrays = new Object[arraysSize];
+    for (int i = 0; i < arraysSize; i++) {
+      byteArrays[i] = new byte[chunkSize];
+      BytesMetrics.chunkAllocated(chunkSize);
+    }
+  }
+
+  /**
+   * 
+   * @return the number of bytes which can be read
+   */
+  public int available() {
+    return (int) (getWritePosition() - getReadPosition());
+  }
+
+  /**
+   * Releases the space of the first length available bytes.
+   * @param length
+   */
+  public void consume(int length) {
+    long r = getReadPosition();
+    checkAvailable(length, getWritePosition() - r);
+    setReadPosition(r + length);
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * 
+   * @param length
+   * @return a zero copy view of the first length available bytes, which is a 
+   *   BytesView or a BytesRope when the bytes span chunks or wrap around.
+   *   The view is only valid until the bytes are consumed, after that
+   *   later writes overwrite it, so copy it (i.e. to a BytesMutant) 
+   *   to keep it longer.
+   */
+  public I_Bytes peek(int length) {
+    long r = getReadPosition();
+    checkAvailable(length, getWritePosition() - r);
+    int index = (int) (r % capacity);
+    int offset = index % chunkSize;
+    if (offset + length <= chunkSize) {
+      return new BytesView((byte[]) byteArrays[index / chunkSize], offset, offset + length);
+    }
+    I_Bytes[] parts = new I_Bytes[(offset + length + chunkSize - 1) / chunkSize];
+    int chunk = index / chunkSize;
+    for (int i = 0; i < parts.length; i++) {
+      int end = Math.min(chunkSize, offset + length);
+      parts[i] = new BytesView((byte[]) byteArrays[chunk], offset, end);
+      length -= end - offset;
+      offset = 0;
+      chunk = (chunk + 1) % byteArrays.length;
+    }
+    return BytesRope.concat(parts);
+  }
+
+  /**
+   * 
+   * @return the number of bytes which can be written
+   */
+  public int remaining() {
+    return capacity - available();
+  }
+
+  /**
+   * Writes as many of the bytes from start until end as there is space for.
+   * @param bytes
+   * @param start
+   * @param end
+   * @return the number of bytes written
+   * @throws ArrayIndexOutOfBoundsException if the range is NOT in the bytes
+   */
+  public int write(byte[] bytes, int start, int end) {
+    checkRange(start, end, bytes.length);
+    long w = getWritePosition();
+    int r = (int) Math.min(end - start, capacity - (w - getReadPosition()));
+    int length = r;
+    while (length > 0) {
+      int index = (int) (w % capacity);
+      int offset = index % chunkSize;
+      int n = Math.min(length, chunkSize - offset);
+      System.arraycopy(bytes, start, (byte[]) byteArrays[index / chunkSize], offset, n);
+      start += n;
+      w += n;
+      length -= n;
+    }
+    BytesMetrics.bytesCopied(r);
+    setWritePosition(w);
+    return r;
+  }
+
+  /**
+   * Writes as many of the bytes from start until end as there is space for.
+   * @param bytes
+   * @param start
+   * @param end
+   * @return the number of bytes written
+   * @throws ArrayIndexOutOfBoundsException if the range is NOT in the bytes
+   */
+  public int write(I_Bytes bytes, int start, int end) {
+    checkRange(start, end, bytes.size());
+    long w = getWritePosition();
+    int r = (int) Math.min(end - start, capacity - (w - getReadPosition()));
+    int length = r;
+    while (length > 0) {
+      int index = (int) (w % capacity);
+      int offset = index % chunkSize;
+      int n = Math.min(length, chunkSize - offset);
+      Bytes.copy(bytes, start, (byte[]) byteArrays[index / chunkSize], offset, n);
+      start += n;
+      w += n;
+      length -= n;
+    }
+    setWritePosition(w);
+    return r;
+  }
+
+  /**
+   * Sub classes may override the cursor accessors, to change 
+   * how they are shared between threads.
+   * @return the total number of bytes consumed
+   */
+  protected long getReadPosition() {
+    return readPosition;
+  }
+
+  /**
+   * @return the total number of bytes written
+   */
+  protected long getWritePosition() {
+    return writePosition;
+  }
+
+  protected void setReadPosition(long readPosition) {
+    this.readPosition = readPosition;
+  }
+
+  protected void setWritePosition(long writePosition) {
+    this.writePosition = writePosition;
+  }
+
+  private static void checkRange(int start, int end, int size) {
+    if (start < 0 || end < start || end > size) {
+      throw new ArrayIndexOutOfBoundsException(start < 0 ? start : end);
+    }
+  }
+
+  private void checkAvailable(int length, long available) {
+    if (length < 0 || length > available) {
+      throw new IllegalArgumentException(AVAILABLE_EXCEPTION_1 + length + 
+          AVAILABLE_EXCEPTION_2 + available);
+    }
+  }
+}
@@ -0,0 +1,237 @@
+package org.adligo.bytes.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a immutable concatenation of other I_Bytes, which
+ * references it's parts instead of copying them.
+ * Nested BytesRopes are flattened into a single array of parts,
+ * so a rope never has more than one level of parts and does NOT need
+ * to be rebalanced.  Each part has a cumulative offset, which provides
+ * O(logN) access time (where N is the number of parts)
+ * by a binary search.<br/>
+ *   Adjacent BytesViews of the same byte array are merged into a
+ * single BytesView.  BytesMutant parts are frozen, which shares their
+ * chunks, so that later changes to the BytesMutant do NOT change the rope.
+ *
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesRope implements I_Bytes {
+  public static final String SIZE_EXCEPTION = "The size of the parts MUST fit in a int, not ";
+
+  /**
+   * offsets[i] is the index of the first byte of parts[i]
+   */
+  private final int[] offsets;
+  private final I_Bytes[] parts;
+  private final int size;
+
+  /**
+   *
+   * @param parts
+   * @return a I_Bytes with the bytes of all of the parts in order,
+   *   which is a BytesRope when there is more than one non empty part.
+   */
+  static I_Bytes concat(I_Bytes... parts) {
+    List<I_Bytes> flat = new ArrayList<I_Bytes>(parts.length);
+    for (int i = 0; i < parts.length; i++) {
+      I_Bytes part = Bytes.snapshot(Objects.requireNonNull(parts[i]));
+      if (part instanceof BytesRope) {
+        BytesRope rope = (BytesRope) part;
+        for (int j = 0; j < rope.parts.length; j++) {
+          add(flat, rope.parts[j]);
+        }
+      } else {
+        add(flat, part);
+      }
+    }
+    switch (flat.size()) {
+      case 0: return Bytes.EMPTY;
+      case 1: return flat.get(0);
+      default: return new BytesRope(flat.toArray(new I_Bytes[flat.size()]));
+    }
+  }
+
+  private static void add(List<I_Bytes> flat, I_Bytes part) {
+    if (part.size() == 0) {
+      return;
+    }
+    int last = flat.size() - 1;
+    if (last >= 0 && part instanceof BytesView && flat.get(last) instanceof BytesView) {
+      BytesView left = (BytesView) flat.get(last);
+      BytesView right = (BytesView) part;
+      if (left.getArray() == right.getArray() &&
+          left.getStart() + left.size() == right.getStart()) {
+        flat.set(last, new BytesView(left.getArray(), left.getStart(),
+            right.getStart() + right.size()));
+        return;
+      }
+    }
+    flat.add(part);
+  }
+
+  private BytesRope(I_Bytes[] parts) {
+    this.parts = parts;
+    this.offsets = new int[parts.length];
+    long total = 0;
+    for (int i = 0; i < parts.length; i++) {
+      offsets[i] = (int) total;
+      total += parts[i].size();
+      if (total > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException(SIZE_EXCEPTION + total);
+      }
+    }
+    this.size = (int) total;
+  }
+
+  /**
+   * Copies a range of these bytes into the byte array, one part at a time.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   * @throws ArrayIndexOutOfBoundsException if the range is bigger than the size
+   */
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    if (start < 0 || length < 0 || start + length > size) {
+      throw new ArrayIndexOutOfBoundsException(start + length);
+    }
+    if (length == 0) {
+      return;
+    }
+    int p = find(start);
+    int partOffset = start - offsets[p];
+    while (length > 0) {
+      I_Bytes part = parts[p];
+      int n = Math.min(length, part.size() - partOffset);
+      Bytes.copy(part, partOffset, to, toOffset, n);
+      toOffset += n;
+      length -= n;
+      partOffset = 0;
+      p++;
+    }
+  }
+
+  /**
+   *
+   * @param i
+   * @return
+   * @throws ArrayIndexOutOfBoundsException if the integer is bigger than the size
+   */
+  public byte get(int i) {
+    int p = find(i);
+    return parts[p].get(i - offsets[p]);
+  }
+
+  public I_Bytes getPart(int i) {
+    return parts[i];
+  }
+
+  public int getPartCount() {
+    return parts.length;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   *
+   * @param start
+   * @param end
+   * @return a I_Bytes which shares the parts of this rope from start
+   * until end.
+   */
+  public I_Bytes slice(int start, int end) {
+    if (start > end) {
+      throw new IllegalArgumentException(BytesView.START_END_EXCEPTION_1 + start + 
+          BytesView.START_END_EXCEPTION_2 + end);
+    }
+    if (start < 0 || end > size) {
+      throw new IllegalArgumentException(BytesView.END_EXCEPTION_1 + end + 
+          BytesView.END_EXCEPTION_2 + size);
+    }
+    BytesMetrics.bytesShared(end - start);
+    return view(start, end);
+  }
+
+  I_Bytes view(int start, int end) {
+    if (start == end) {
+      return Bytes.EMPTY;
+    }
+    int first = find(start);
+    int last = find(end - 1);
+    if (first == last) {
+      return Bytes.view(parts[first], start - offsets[first], end - offsets[first]);
+    }
+    I_Bytes[] r = new I_Bytes[last - first + 1];
+    r[0] = Bytes.view(parts[first], start - offsets[first], parts[first].size());
+    for (int i = first + 1; i < last; i++) {
+      r[i - first] = parts[i];
+    }
+    r[r.length - 1] = Bytes.view(parts[last], 0, end - offsets[last]);
+    return new BytesRope(r);
+  }
+
+  /**
+   * Visits the segments of the parts from start until end, starting
+   * with the part which contains start.
+   * @param start
+   * @param end
+   * @param visitor
+   */
+  void forEachSegment(int start, int end, SegmentVisitor visitor) {
+    if (start >= end) {
+      return;
+    }
+    for (int p = find(start); p < parts.length && offsets[p] < end; p++) {
+      int partStart = offsets[p];
+      Bytes.forEachSegment(parts[p], Math.max(start, partStart) - partStart, 
+          Math.min(end, partStart + parts[p].size()) - partStart, visitor);
+    }
+  }
+
+  /**
+   *
+   * @param i
+   * @return the index of the part which contains the byte at i
+   */
+  private int find(int i) {
+    if (i < 0 || i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    int low = 0;
+    int high = parts.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (offsets[mid] <= i) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,68 @@
+package org.adligo.bytes.shared;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a view of a range of any other I_Bytes, it is used by
+ * {@link Bytes#slice(I_Bytes, int, int)} when there isn't a
+ * more specific view for the I_Bytes.  The bytes are NOT copied, 
+ * so changes to a mutable I_Bytes (other than a BytesMutant,
+ * which is frozen first) are seen through the slice.
+ *
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+class BytesSlice implements I_Bytes {
+  private final I_Bytes bytes;
+  private final int size;
+  private final int start;
+
+  BytesSlice(I_Bytes bytes, int start, int end) {
+    this.bytes = bytes;
+    this.size = end - start;
+    this.start = start;
+  }
+
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    if (start < 0 || length < 0 || start + length > size) {
+      throw new ArrayIndexOutOfBoundsException(start + length);
+    }
+    Bytes.copy(bytes, this.start + start, to, toOffset, length);
+  }
+
+  public byte get(int i) {
+    if (i < 0 || i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    return bytes.get(start + i);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  I_Bytes getBytes() {
+    return bytes;
+  }
+
+  int getStart() {
+    return start;
+  }
+}
@@ -0,0 +1,182 @@
+package org.adligo.bytes.shared;
+
+import java.util.List;
+import java.util.ListIterator;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class sorts large collections of I_Bytes keys in the unsigned 
+ * lexicographic order of the {@link BytesComparator}, with a 
+ * {@link <a href="https://en.wikipedia.org/wiki/Radix_sort#Most_significant_digit">MSD Radix Sort</a>}.
+ * The first 8 bytes of every key are read once into a cached prefix,
+ * so the first 8 passes do NOT call get(int).  Buckets of 32 or less
+ * keys are sorted with a insertion sort.  The sort is stable. <br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesSort {
+  /**
+   * Buckets with this many keys or less use a comparison sort.
+   */
+  public static final int SMALL_BUCKET = 32;
+  /**
+   * 256 unsigned byte values plus the end of key digit.
+   */
+  private static final int RADIX = 257;
+
+  private final I_Bytes[] auxKeys;
+  private final long[] auxPrefixes;
+  private final I_Bytes[] keys;
+  private final long[] prefixes;
+
+  public static void sort(I_Bytes[] keys) {
+    sort(keys, 0, keys.length);
+  }
+
+  /**
+   * 
+   * @param keys
+   * @param from the first index to sort
+   * @param to the index after the last index to sort
+   */
+  public static void sort(I_Bytes[] keys, int from, int to) {
+    int n = to - from;
+    if (n < 2) {
+      return;
+    }
+    I_Bytes[] work = new I_Bytes[n];
+    System.arraycopy(keys, from, work, 0, n);
+    new BytesSort(work).sort(0, n, 0);
+    System.arraycopy(work, 0, keys, from, n);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T extends I_Bytes> void sort(List<T> keys) {
+    I_Bytes[] work = keys.toArray(new I_Bytes[keys.size()]);
+    sort(work);
+    ListIterator<T> it = keys.listIterator();
+    for (int i = 0; i < work.length; i++) {
+      it.next();
+      it.set((T) work[i]);
+    }
+  }
+
+  private BytesSort(I_Bytes[] keys) {
+    this.keys = keys;
+    this.prefixes = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      prefixes[i] = BytesComparator.prefix(keys[i]);
+    }
+    this.auxKeys = new I_Bytes[keys.length];
+    this.auxPrefixes = new long[keys.length];
+  }
+
+  private int compare(int a, int b, int depth) {
+    if (depth < BytesComparator.PREFIX_SIZE) {
+      return BytesComparator.INSTANCE.compare(keys[a], prefixes[a], keys[b], prefixes[b]);
+    }
+    return BytesComparator.compareFrom(keys[a], keys[b], depth);
+  }
+
+  /**
+   * 
+   * @param i
+   * @param depth
+   * @return 0 for the end of the key, or the unsigned byte at depth + 1
+   */
+  private int digit(int i, int depth) {
+    I_Bytes key = keys[i];
+    if (depth >= key.size()) {
+      return 0;
+    }
+    if (depth < BytesComparator.PREFIX_SIZE) {
+      return ((int) (prefixes[i] >>> (56 - 8 * depth)) & 0xff) + 1;
+    }
+    return (key.get(depth) & 0xff) + 1;
+  }
+
+  private void insertionSort(int from, int to, int depth) {
+    for (int i = from + 1; i < to; i++) {
+      I_Bytes key = keys[i];
+      long prefix = prefixes[i];
+      int j = i;
+      while (j > from && compare(j - 1, i, depth) > 0) {
+        j--;
+      }
+      if (j < i) {
+        System.arraycopy(keys, j, keys, j + 1, i - j);
+        System.arraycopy(prefixes, j, prefixes, j + 1, i - j);
+        keys[j] = key;
+        prefixes[j] = prefix;
+      }
+    }
+  }
+
+  private void sort(int from, int to, int depth) {
+    int[] counts = new int[RADIX + 1];
+    while (to - from > SMALL_BUCKET) {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = 0;
+      }
+      for (int i = from; i < to; i++) {
+        counts[digit(i, depth) + 1]++;
+      }
+      if (counts[1] == to - from) {
+        //every key has ended
+        return;
+      }
+      int single = -1;
+      for (int d = 1; d < RADIX; d++) {
+        if (counts[d + 1] == to - from) {
+          single = d;
+        }
+      }
+      if (single != -1) {
+        //every key has the same byte at this depth, so go deeper without recursion
+        depth++;
+        continue;
+      }
+      for (int d = 0; d < RADIX; d++) {
+        counts[d + 1] += counts[d];
+      }
+      for (int i = from; i < to; i++) {
+        int d = digit(i, depth);
+        int j = counts[d]++;
+        auxKeys[j] = keys[i];
+        auxPrefixes[j] = prefixes[i];
+      }
+      System.arraycopy(auxKeys, 0, keys, from, to - from);
+      System.arraycopy(auxPrefixes, 0, prefixes, from, to - from);
+      //counts[d] is now the end of the bucket for d, relative to from
+      int start = counts[0];
+      for (int d = 1; d < RADIX; d++) {
+        int end = counts[d];
+        if (end - start > 1) {
+          sort(from + start, from + end, depth + 1);
+        }
+        start = end;
+      }
+      return;
+    }
+    insertionSort(from, to, depth);
+  }
+}
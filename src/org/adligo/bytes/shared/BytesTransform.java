@@ -0,0 +1,256 @@
+package org.adligo.bytes.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a immutable transformation of bytes, which is applied
+ * lazily by the {@link TransformedBytes} and {@link TransformedBigBytes} 
+ * views.  A transform is built from the bit reversal of each byte,
+ * the reversal of the order of the bytes, a XOR with a repeating key and
+ * a 256 entry table (i.e. a S-box).  Transforms are composed with 
+ * {@link #andThen(BytesTransform)}, which folds them into as few 
+ * stages as possible; all of the byte to byte stages are folded into a
+ * single table, XOR keys of the same length are folded into a single key
+ * and the order reversals are folded into the positions of the keys.
+ * So a composed transform is applied in a single pass.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public final class BytesTransform {
+  public static final String KEY_EXCEPTION = "The key MUST have at least one byte.";
+  public static final String TABLE_EXCEPTION = "The table MUST have 256 bytes, not ";
+  /**
+   * The size of the blocks which all of the stages are applied to,
+   * before moving on to the next block.
+   */
+  private static final int BLOCK_SIZE = 4096;
+
+  public static final BytesTransform IDENTITY = new BytesTransform(new byte[0][], 
+      new byte[0][], new boolean[0], false);
+  public static final BytesTransform REVERSE_BITS = table(reverseBitsTable());
+  public static final BytesTransform REVERSE_ORDER = new BytesTransform(new byte[0][], 
+      new byte[0][], new boolean[0], true);
+
+  /**
+   * keys[i] is the XOR key of stage i, or null if the stage is a table.
+   */
+  private final byte[][] keys;
+  /**
+   * true if the key of stage i is indexed from the end,
+   * because the order is reversed after the stage.
+   */
+  private final boolean[] keysReversed;
+  /**
+   * true if the order of the bytes is reversed.
+   */
+  private final boolean reversed;
+  /**
+   * tables[i] is the table of stage i, or null if the stage is a key.
+   */
+  private final byte[][] tables;
+
+  /**
+   * 
+   * @param table the byte for each unsigned byte value
+   * @return a transform which replaces each byte with the table entry
+   */
+  public static BytesTransform table(byte[] table) {
+    if (table.length != 256) {
+      throw new IllegalArgumentException(TABLE_EXCEPTION + table.length);
+    }
+    return new BytesTransform(new byte[][] {table.clone()}, new byte[1][], 
+        new boolean[1], false);
+  }
+
+  /**
+   * 
+   * @param key
+   * @return a transform which XORs the byte at index i with 
+   *   key[i % key.length]
+   */
+  public static BytesTransform xor(byte... key) {
+    if (key.length == 0) {
+      throw new IllegalArgumentException(KEY_EXCEPTION);
+    }
+    boolean constant = true;
+    for (int i = 1; i < key.length; i++) {
+      constant = constant && key[i] == key[0];
+    }
+    if (constant) {
+      byte[] table = new byte[256];
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (byte) (i ^ key[0]);
+      }
+      return table(table);
+    }
+    return new BytesTransform(new byte[1][], new byte[][] {key.clone()}, 
+        new boolean[1], false);
+  }
+
+  private BytesTransform(byte[][] tables, byte[][] keys, boolean[] keysReversed, 
+      boolean reversed) {
+    this.keys = keys;
+    this.keysReversed = keysReversed;
+    this.reversed = reversed;
+    this.tables = tables;
+  }
+
+  /**
+   * 
+   * @param next
+   * @return a transform which applies this transform and then the next transform.
+   */
+  public BytesTransform andThen(BytesTransform next) {
+    List<byte[]> t = new ArrayList<byte[]>();
+    List<byte[]> k = new ArrayList<byte[]>();
+    List<Boolean> kr = new ArrayList<Boolean>();
+    for (int i = 0; i < tables.length; i++) {
+      //the next reversal changes the positions of the keys before it
+      add(t, k, kr, tables[i], keys[i], keysReversed[i] ^ next.reversed);
+    }
+    for (int i = 0; i < next.tables.length; i++) {
+      add(t, k, kr, next.tables[i], next.keys[i], next.keysReversed[i]);
+    }
+    boolean[] krs = new boolean[kr.size()];
+    for (int i = 0; i < krs.length; i++) {
+      krs[i] = kr.get(i);
+    }
+    return new BytesTransform(t.toArray(new byte[t.size()][]), k.toArray(new byte[k.size()][]),
+        krs, reversed ^ next.reversed);
+  }
+
+  /**
+   * 
+   * @param b the byte at position in the source order
+   * @param position the index of the byte in the view
+   * @param size the size of the view
+   * @return the transformed byte
+   */
+  public byte apply(byte b, long position, long size) {
+    for (int i = 0; i < tables.length; i++) {
+      if (tables[i] != null) {
+        b = tables[i][b & 0xff];
+      } else {
+        byte[] key = keys[i];
+        long p = keysReversed[i] ? size - 1 - position : position;
+        b = (byte) (b ^ key[(int) (p % key.length)]);
+      }
+    }
+    return b;
+  }
+
+  /**
+   * Applies the stages in place, a block at a time so that the bytes
+   * stay in the cache.
+   * @param bytes the bytes in the view order, which were 
+   *   already reversed if {@link #isReversed()}
+   * @param start
+   * @param length
+   * @param position the index in the view of the byte at start
+   * @param size the size of the view
+   */
+  public void apply(byte[] bytes, int start, int length, long position, long size) {
+    int end = start + length;
+    while (start < end) {
+      int blockEnd = Math.min(end, start + BLOCK_SIZE);
+      for (int i = 0; i < tables.length; i++) {
+        if (tables[i] != null) {
+          byte[] table = tables[i];
+          for (int j = start; j < blockEnd; j++) {
+            bytes[j] = table[bytes[j] & 0xff];
+          }
+        } else if (keysReversed[i]) {
+          byte[] key = keys[i];
+          int k = (int) ((size - 1 - position) % key.length);
+          for (int j = start; j < blockEnd; j++) {
+            bytes[j] = (byte) (bytes[j] ^ key[k]);
+            k = k == 0 ? key.length - 1 : k - 1;
+          }
+        } else {
+          byte[] key = keys[i];
+          int k = (int) (position % key.length);
+          for (int j = start; j < blockEnd; j++) {
+            bytes[j] = (byte) (bytes[j] ^ key[k]);
+            k = k + 1 == key.length ? 0 : k + 1;
+          }
+        }
+      }
+      position += blockEnd - start;
+      start = blockEnd;
+    }
+  }
+
+  /**
+   * 
+   * @return the number of passes over the bytes, after folding.
+   */
+  public int getStages() {
+    return tables.length;
+  }
+
+  /**
+   * 
+   * @return true if the order of the bytes is reversed.
+   */
+  public boolean isReversed() {
+    return reversed;
+  }
+
+  /**
+   * Adds a stage, folding it into the last stage if possible.
+   */
+  private static void add(List<byte[]> tables, List<byte[]> keys, List<Boolean> keysReversed,
+      byte[] table, byte[] key, boolean keyReversed) {
+    int last = tables.size() - 1;
+    if (table != null) {
+      if (last >= 0 && tables.get(last) != null) {
+        byte[] first = tables.get(last);
+        byte[] folded = new byte[256];
+        for (int i = 0; i < folded.length; i++) {
+          folded[i] = table[first[i] & 0xff];
+        }
+        tables.set(last, folded);
+        return;
+      }
+    } else if (last >= 0 && keys.get(last) != null && keys.get(last).length == key.length &&
+        keysReversed.get(last) == keyReversed) {
+      byte[] first = keys.get(last);
+      byte[] folded = new byte[key.length];
+      for (int i = 0; i < folded.length; i++) {
+        folded[i] = (byte) (first[i] ^ key[i]);
+      }
+      keys.set(last, folded);
+      return;
+    }
+    tables.add(table);
+    keys.add(key);
+    keysReversed.add(keyReversed);
+  }
+
+  private static byte[] reverseBitsTable() {
+    byte[] r = new byte[256];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = (byte) (Integer.reverse(i) >>> 24);
+    }
+    return r;
+  }
+}
@@ -0,0 +1,315 @@
+package org.adligo.bytes.shared;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class encodes and decodes UTF-8 text without the intermediate 
+ * arrays of String.getBytes and new String(byte[]).  Text is encoded 
+ * directly into the chunks of a BytesMutant, and decoded directly from
+ * the arrays behind any I_Bytes or AbstractBigBytes, including multibyte
+ * characters which are split across chunks or leaves. <br/>
+ *   Runs of ASCII are checked 8 bytes at a time.  Malformed bytes are 
+ * decoded to the replacement character U+FFFD, one for each maximal subpart
+ * as Unicode recommends.  This matches the JDK for most malformed bytes, 
+ * but NOT for encoded surrogates (i.e. ED B9 41 decodes to U+FFFD U+FFFD 'A' 
+ * here and U+FFFD 'A' in the JDK), since ED is only followed by 80 to 9F.  
+ * Unpaired surrogates are encoded as '?', like the JDK.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesUtf8 {
+  public static final char REPLACEMENT = '\ufffd';
+
+  /**
+   * This class decodes one array segment at a time, keeping the state of 
+   * a partial multibyte character between segments.
+   */
+  private static final class Decoder implements SegmentVisitor {
+    private int codePoint;
+    /**
+     * The range of the next continuation byte, the second byte of some 
+     * characters has a smaller range to exclude overlong encodings, 
+     * surrogates and code points after U+10FFFF.
+     */
+    private int lower = 0x80;
+    private final char[] out;
+    private int op;
+    /**
+     * The number of continuation bytes still needed for the codePoint.
+     */
+    private int remaining;
+    /**
+     * When this is null the chars are only written to out.
+     */
+    private final StringBuilder sb;
+    private int upper = 0xbf;
+
+    private Decoder(char[] out, int op, StringBuilder sb) {
+      this.out = out;
+      this.op = op;
+      this.sb = sb;
+    }
+
+    @Override
+    public void visit(byte[] array, int start, int end) {
+      int i = start;
+      while (i < end) {
+        if (remaining == 0) {
+          while (i + 8 <= end && (array[i] | array[i + 1] | array[i + 2] | array[i + 3] |
+              array[i + 4] | array[i + 5] | array[i + 6] | array[i + 7]) >= 0) {
+            if (op + 8 > out.length) {
+              flush();
+            }
+            for (int j = 0; j < 8; j++) {
+              out[op + j] = (char) array[i + j];
+            }
+            op += 8;
+            i += 8;
+          }
+          if (i >= end) {
+            return;
+          }
+          int b = array[i++];
+          if (b >= 0) {
+            put((char) b);
+          } else {
+            b = b & 0xff;
+            if (b >= 0xc2 && b <= 0xdf) {
+              start(b & 0x1f, 1, 0x80, 0xbf);
+            } else if (b >= 0xe0 && b <= 0xef) {
+              start(b & 0x0f, 2, b == 0xe0 ? 0xa0 : 0x80, b == 0xed ? 0x9f : 0xbf);
+            } else if (b >= 0xf0 && b <= 0xf4) {
+              start(b & 0x07, 3, b == 0xf0 ? 0x90 : 0x80, b == 0xf4 ? 0x8f : 0xbf);
+            } else {
+              put(REPLACEMENT);
+            }
+          }
+        } else {
+          int b = array[i] & 0xff;
+          if (b < lower || b > upper) {
+            //the byte is NOT consumed, it starts the next character
+            remaining = 0;
+            lower = 0x80;
+            upper = 0xbf;
+            put(REPLACEMENT);
+            continue;
+          }
+          i++;
+          codePoint = (codePoint << 6) | (b & 0x3f);
+          lower = 0x80;
+          upper = 0xbf;
+          if (--remaining == 0) {
+            if (codePoint >= 0x10000) {
+              put((char) (0xd800 + ((codePoint - 0x10000) >>> 10)));
+              put((char) (0xdc00 + ((codePoint - 0x10000) & 0x3ff)));
+            } else {
+              put((char) codePoint);
+            }
+          }
+        }
+      }
+    }
+
+    private int finish() {
+      if (remaining > 0) {
+        remaining = 0;
+        put(REPLACEMENT);
+      }
+      flush();
+      return op;
+    }
+
+    private void flush() {
+      if (sb != null) {
+        sb.append(out, 0, op);
+        op = 0;
+      }
+    }
+
+    private void put(char c) {
+      if (op == out.length) {
+        flush();
+      }
+      out[op++] = c;
+    }
+
+    private void start(int bits, int remaining, int lower, int upper) {
+      this.codePoint = bits;
+      this.remaining = remaining;
+      this.lower = lower;
+      this.upper = upper;
+    }
+  }
+
+  public static String decode(I_Bytes bytes) {
+    StringBuilder sb = new StringBuilder(bytes.size());
+    decode(bytes, 0, bytes.size(), sb);
+    return sb.toString();
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @param start
+   * @param end
+   * @param to the destination, which MUST have room for end - start chars
+   *   after toOffset
+   * @param toOffset
+   * @return the number of chars decoded
+   */
+  public static int decode(I_Bytes bytes, int start, int end, char[] to, int toOffset) {
+    Decoder d = new Decoder(to, toOffset, null);
+    Bytes.forEachSegment(bytes, start, end, d);
+    return d.finish() - toOffset;
+  }
+
+  public static void decode(I_Bytes bytes, int start, int end, StringBuilder to) {
+    Decoder d = new Decoder(new char[Math.min(Math.max(end - start, 8), 1024)], 0, to);
+    Bytes.forEachSegment(bytes, start, end, d);
+    d.finish();
+  }
+
+  /**
+   * 
+   * @param bytes
+   * @param start
+   * @param end
+   * @param to the destination, which MUST have room for end - start chars
+   *   after toOffset
+   * @param toOffset
+   * @return the number of chars decoded
+   */
+  public static int decode(AbstractBigBytes bytes, long start, long end, char[] to, 
+      int toOffset) {
+    Decoder d = new Decoder(to, toOffset, null);
+    bytes.forEachSegment(start, end, d);
+    return d.finish() - toOffset;
+  }
+
+  public static void decode(AbstractBigBytes bytes, long start, long end, StringBuilder to) {
+    Decoder d = new Decoder(new char[(int) Math.min(Math.max(end - start, 8), 1024)], 0, to);
+    bytes.forEachSegment(start, end, d);
+    d.finish();
+  }
+
+  public static void encode(CharSequence chars, BytesMutant to) {
+    encode(chars, 0, chars.length(), to);
+  }
+
+  /**
+   * Encodes the chars from start until end, and adds them to the BytesMutant.
+   * @param chars
+   * @param start
+   * @param end
+   * @param to
+   */
+  public static void encode(CharSequence chars, int start, int end, BytesMutant to) {
+    int i = start;
+    while (i < end) {
+      byte[] chunk = to.writableChunk();
+      int offset = to.writableOffset();
+      int op = offset;
+      int limit = chunk.length;
+      while (i < end && op < limit) {
+        char c = chars.charAt(i);
+        if (c < 0x80) {
+          chunk[op++] = (byte) c;
+          i++;
+        } else if (op + 4 > limit) {
+          //let add spill the character into the next chunk
+          break;
+        } else if (c < 0x800) {
+          chunk[op++] = (byte) (0xc0 | (c >>> 6));
+          chunk[op++] = (byte) (0x80 | (c & 0x3f));
+          i++;
+        } else if (c < 0xd800 || c > 0xdfff) {
+          chunk[op++] = (byte) (0xe0 | (c >>> 12));
+          chunk[op++] = (byte) (0x80 | ((c >>> 6) & 0x3f));
+          chunk[op++] = (byte) (0x80 | (c & 0x3f));
+          i++;
+        } else {
+          int cp = codePoint(chars, i, end);
+          if (cp < 0) {
+            chunk[op++] = (byte) '?';
+            i++;
+          } else {
+            chunk[op++] = (byte) (0xf0 | (cp >>> 18));
+            chunk[op++] = (byte) (0x80 | ((cp >>> 12) & 0x3f));
+            chunk[op++] = (byte) (0x80 | ((cp >>> 6) & 0x3f));
+            chunk[op++] = (byte) (0x80 | (cp & 0x3f));
+            i += 2;
+          }
+        }
+      }
+      to.commitWritable(op - offset);
+      if (i < end && op < limit) {
+        i = encodeSpilling(chars, i, end, to);
+      }
+    }
+  }
+
+  /**
+   * 
+   * @param chars
+   * @param i the index of a surrogate
+   * @param end
+   * @return the code point of the surrogate pair at i, or -1 if it is unpaired
+   */
+  private static int codePoint(CharSequence chars, int i, int end) {
+    char high = chars.charAt(i);
+    if (high <= 0xdbff && i + 1 < end) {
+      char low = chars.charAt(i + 1);
+      if (low >= 0xdc00 && low <= 0xdfff) {
+        return ((high - 0xd800) << 10) + (low - 0xdc00) + 0x10000;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Encodes the multibyte character at i with add, so that it can 
+   * spill from the end of one chunk into the next.
+   * @return the index of the next character
+   */
+  private static int encodeSpilling(CharSequence chars, int i, int end, BytesMutant to) {
+    char c = chars.charAt(i);
+    if (c < 0x800) {
+      to.add((byte) (0xc0 | (c >>> 6)));
+      to.add((byte) (0x80 | (c & 0x3f)));
+      return i + 1;
+    } else if (c < 0xd800 || c > 0xdfff) {
+      to.add((byte) (0xe0 | (c >>> 12)));
+      to.add((byte) (0x80 | ((c >>> 6) & 0x3f)));
+      to.add((byte) (0x80 | (c & 0x3f)));
+      return i + 1;
+    }
+    int cp = codePoint(chars, i, end);
+    if (cp < 0) {
+      to.add((byte) '?');
+      return i + 1;
+    }
+    to.add((byte) (0xf0 | (cp >>> 18)));
+    to.add((byte) (0x80 | ((cp >>> 12) & 0x3f)));
+    to.add((byte) (0x80 | ((cp >>> 6) & 0x3f)));
+    to.add((byte) (0x80 | (cp & 0x3f)));
+    return i + 2;
+  }
+}
@@ -74,7 +74,54 @@ public class BytesView implements I_Bytes {
     return bytes[start + i];
   }
 
+  /**
+   * Copies a range of these bytes into the byte array.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   * @throws ArrayIndexOutOfBoundsException if the range is bigger than the size
+   */
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    if (start < 0 || length < 0 || start + length > size) {
+      throw new ArrayIndexOutOfBoundsException(start + length);
+    }
+    System.arraycopy(bytes, this.start + start, to, toOffset, length);
+    BytesMetrics.bytesCopied(length);
+  }
+
   public int size() {
     return size;
   }
+
+  /**
+   * 
+   * @param start
+   * @param end
+   * @return a BytesView of the same byte array from start until end
+   *   of this view.
+   */
+  public BytesView slice(int start, int end) {
+    if (start > end) {
+      throw new IllegalArgumentException(START_END_EXCEPTION_1 + start + 
+          START_END_EXCEPTION_2 + end);
+    }
+    if (start < 0 || end > size) {
+      throw new IllegalArgumentException(END_EXCEPTION_1 + end + END_EXCEPTION_2 + size);
+    }
+    BytesMetrics.bytesShared(end - start);
+    return view(start, end);
+  }
+
+  BytesView view(int start, int end) {
+    return new BytesView(bytes, this.start + start, this.start + end);
+  }
+
+  byte[] getArray() {
+    return bytes;
+  }
+
+  int getStart() {
+    return start;
+  }
 }
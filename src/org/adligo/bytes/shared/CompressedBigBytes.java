@@ -0,0 +1,158 @@
+package org.adligo.bytes.shared;
+
+import java.util.Arrays;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class provides a immutable infinite sized collection of bytes,
+ * where each leaf is stored compressed by the {@link BlockCodec}.
+ * Leaves are decompressed on demand into a small least recently used
+ * cache, so that random access with {@link #get(long)} and
+ * {@link #copyTo(long, byte[], int, int)} only decompresses the leaves
+ * that are actually read.  This allows several times more data to
+ * be kept in memory, at the cost of decompression time on a cache miss.
+ * Holes in sparse bytes are NOT stored.<br/>
+ *
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class CompressedBigBytes extends AbstractBigBytes {
+  public static final int DEFAULT_CACHE_SIZE = 16;
+  public static final String CORRUPT_LEAF_EXCEPTION = "The compressed leaf is corrupt ";
+  public static final String LEAF_COUNT_EXCEPTION = "The leaf count MUST fit in a array, not ";
+
+  /**
+   * The compressed leaves, null for holes.  Leaves which do NOT
+   * compress to fewer bytes are stored raw, so their block has 
+   * the same length as the leaf.
+   */
+  private final byte[][] blocks;
+  /**
+   * The least recently used decompressed leaves.
+   */
+  private final LeafCache cache;
+  private final long size;
+
+  public CompressedBigBytes(AbstractBigBytes bytes) {
+    this(bytes, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   *
+   * @param bytes the bytes to compress, with the same fan out and leaf size.
+   * @param cacheSize the maximum number of decompressed leaves to keep in memory.
+   */
+  public CompressedBigBytes(AbstractBigBytes bytes, int cacheSize) {
+    super(bytes.getFanOut(), bytes.getLeafSize(), 1);
+    this.cache = new LeafCache(cacheSize);
+    long leafCount = bytes.getLeafCount();
+    if (leafCount > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException(LEAF_COUNT_EXCEPTION + leafCount);
+    }
+    this.size = bytes.size();
+    this.blocks = new byte[(int) leafCount][];
+    byte[] raw = new byte[getLeafSize()];
+    for (long i = bytes.nextPopulatedLeaf(0); i >= 0; i = bytes.nextPopulatedLeaf(i + 1)) {
+      I_Bytes leaf = bytes.getLeaf(i);
+      int length = leaf.size();
+      Bytes.copy(leaf, 0, raw, 0, length);
+      byte[] block = BlockCodec.compress(raw, 0, length);
+      if (block.length >= length) {
+        block = Arrays.copyOf(raw, length);
+      }
+      blocks[(int) i] = block;
+    }
+    BytesMetrics.bigBytesShape(getDimensions(), leafCount);
+  }
+
+  /**
+   *
+   * @return the number of bytes used by the compressed leaves.
+   */
+  public long getCompressedSize() {
+    long r = 0;
+    for (int i = 0; i < blocks.length; i++) {
+      if (blocks[i] != null) {
+        r += blocks[i].length;
+      }
+    }
+    return r;
+  }
+
+  @Override
+  public I_Bytes getLeaf(long leafIndex) {
+    checkLeafIndex(leafIndex);
+    if (blocks[(int) leafIndex] == null) {
+      //holes are NOT cached
+      return getHole(leafIndex);
+    }
+    byte[] block = blocks[(int) leafIndex];
+    if (block.length == getLeafLength(leafIndex)) {
+      //raw leaves are NOT cached
+      return new BytesView(block, 0, block.length);
+    }
+    I_Bytes r = cache.get(leafIndex);
+    if (r == null) {
+      r = decompress((int) leafIndex);
+      cache.put(leafIndex, r);
+    }
+    return r;
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  protected long nextHoleLeaf(long leafIndex) {
+    for (long i = leafIndex; i < blocks.length; i++) {
+      if (blocks[(int) i] == null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  protected long nextPopulatedLeaf(long leafIndex) {
+    for (long i = leafIndex; i < blocks.length; i++) {
+      if (blocks[(int) i] != null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private I_Bytes decompress(int leafIndex) {
+    byte[] block = blocks[leafIndex];
+    int length = getLeafLength(leafIndex);
+    byte[] raw = new byte[length];
+    if (BlockCodec.decompress(block, 0, block.length, raw, 0) != length) {
+      throw new IllegalStateException(CORRUPT_LEAF_EXCEPTION + leafIndex);
+    }
+    return new BytesView(raw, 0, length);
+  }
+
+  private int getLeafLength(long leafIndex) {
+    return (int) Math.min(getLeafSize(), size - leafIndex * getLeafSize());
+  }
+}
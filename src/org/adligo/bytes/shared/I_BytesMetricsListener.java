@@ -0,0 +1,72 @@
+package org.adligo.bytes.shared;
+
+/**
+ * This interface receives metrics about the memory used by the
+ * classes in this package, it is set with 
+ * {@link BytesMetrics#setListener(I_BytesMetricsListener)}.  When there
+ * is no listener nothing is reported.  Implementations MUST be 
+ * threadsafe and fast, since they are called on allocation and copy paths. <br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public interface I_BytesMetricsListener {
+
+  /**
+   * Reported when a immutable BigBytes is created and when a 
+   * BigBytesMutant adds a leaf.
+   * @param dimensions
+   * @param leafCount the number of leaves, a BigBytesMutant only counts 
+   *   the leaves it has allocated (NOT the holes).
+   */
+  void onBigBytesShape(int dimensions, long leafCount);
+
+  /**
+   * Reported when bytes are copied from one array to another.
+   * @param length
+   */
+  void onBytesCopied(long length);
+
+  /**
+   * Reported once when bytes are shared instead of being copied
+   * by a slice, freeze or concat, with the size of the returned bytes.
+   * @param length
+   */
+  void onBytesShared(long length);
+
+  /**
+   * Reported when a BytesMutant allocates a new chunk.
+   * @param chunkSize
+   */
+  void onChunkAllocated(int chunkSize);
+
+  /**
+   * Reported when a BytesMutant reuses a chunk after it was cleared.
+   * @param chunkSize
+   */
+  void onChunkRecycled(int chunkSize);
+
+  /**
+   * Reported when a pool or cache (i.e. the CompressedBigBytes leaf cache)
+   * is asked for a object.
+   * @param hit true when the object was found
+   */
+  void onPoolAccess(boolean hit);
+}
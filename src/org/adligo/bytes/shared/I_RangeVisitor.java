@@ -0,0 +1,36 @@
+package org.adligo.bytes.shared;
+
+/**
+ * This interface is used to visit ranges of a AbstractBigBytes in order,
+ * i.e. the populated ranges of sparse BigBytes 
+ * {@link AbstractBigBytes#forEachPopulatedRange(I_RangeVisitor)}.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public interface I_RangeVisitor {
+
+  /**
+   * 
+   * @param start the first index of the range
+   * @param end the index after the last index of the range
+   */
+  void visit(long start, long end);
+}
@@ -0,0 +1,105 @@
+package org.adligo.bytes.shared;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a small thread safe least recently used cache of leaves,
+ * for AbstractBigBytes which decompress or read their leaves on demand
+ * (i.e. CompressedBigBytes and the jvm FileBigBytes).  The last leaf
+ * returned is also kept in a volatile field, so sequential calls to
+ * get(long) for the same leaf skip the synchronized map, they are
+ * still reported to BytesMetrics as pool hits.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class LeafCache {
+  public static final String CACHE_SIZE_EXCEPTION = "The cache size MUST be at least 1, not ";
+
+  /**
+   * A leaf that was recently returned.
+   */
+  private static final class CachedLeaf {
+    private final long index;
+    private final I_Bytes leaf;
+
+    private CachedLeaf(long index, I_Bytes leaf) {
+      this.index = index;
+      this.leaf = leaf;
+    }
+  }
+
+  /**
+   * The least recently used leaves, access is synchronized on the map.
+   */
+  private final Map<Long, I_Bytes> leaves;
+  private volatile CachedLeaf last;
+
+  /**
+   * 
+   * @param cacheSize the maximum number of leaves to keep in memory.
+   */
+  public LeafCache(int cacheSize) {
+    if (cacheSize < 1) {
+      throw new IllegalArgumentException(CACHE_SIZE_EXCEPTION + cacheSize);
+    }
+    this.leaves = new LinkedHashMap<Long, I_Bytes>(cacheSize * 2, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, I_Bytes> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * 
+   * @param leafIndex
+   * @return the cached leaf, or null if it must be loaded and put
+   */
+  public I_Bytes get(long leafIndex) {
+    CachedLeaf cl = last;
+    if (cl != null && cl.index == leafIndex) {
+      BytesMetrics.poolAccess(true);
+      return cl.leaf;
+    }
+    Long key = leafIndex;
+    I_Bytes r;
+    synchronized (leaves) {
+      r = leaves.get(key);
+    }
+    BytesMetrics.poolAccess(r != null);
+    if (r != null) {
+      last = new CachedLeaf(leafIndex, r);
+    }
+    return r;
+  }
+
+  public void put(long leafIndex, I_Bytes leaf) {
+    synchronized (leaves) {
+      leaves.put(leafIndex, leaf);
+    }
+    last = new CachedLeaf(leafIndex, leaf);
+  }
+}
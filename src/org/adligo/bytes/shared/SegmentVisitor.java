@@ -0,0 +1,37 @@
+package org.adligo.bytes.shared;
+
+/**
+ * This interface is used to visit the byte arrays behind a 
+ * I_Bytes or AbstractBigBytes in order, so that code in this package 
+ * can process each array in a tight loop instead of calling get.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+interface SegmentVisitor {
+
+  /**
+   * 
+   * @param array
+   * @param start the first index to visit
+   * @param end the index after the last index to visit
+   */
+  void visit(byte[] array, int start, int end);
+}
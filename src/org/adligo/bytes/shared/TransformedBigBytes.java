@@ -0,0 +1,117 @@
+package org.adligo.bytes.shared;
+
+import java.util.Objects;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a immutable view of a other AbstractBigBytes, which
+ * applies a {@link BytesTransform} to each byte as it is read instead of
+ * allocating a transformed copy.  The leaves are {@link TransformedBytes} 
+ * of the leaves of the other AbstractBigBytes, so bulk copies are
+ * transformed in place one leaf at a time.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class TransformedBigBytes extends AbstractBigBytes {
+  private final AbstractBigBytes bytes;
+  private final BytesTransform transform;
+
+  /**
+   * 
+   * @param bytes
+   * @param transform
+   */
+  public TransformedBigBytes(AbstractBigBytes bytes, BytesTransform transform) {
+    super(bytes.getFanOut(), bytes.getLeafSize(), 1);
+    if (bytes instanceof TransformedBigBytes) {
+      TransformedBigBytes other = (TransformedBigBytes) bytes;
+      bytes = other.bytes;
+      transform = other.transform.andThen(transform);
+    }
+    this.bytes = bytes;
+    this.transform = Objects.requireNonNull(transform);
+  }
+
+  @Override
+  public void copyTo(long start, byte[] to, int toOffset, int length) {
+    if (length < 0) {
+      throw new IndexOutOfBoundsException(LENGTH_EXCEPTION + length);
+    }
+    if (length == 0) {
+      return;
+    }
+    checkIndex(start);
+    checkIndex(start + length - 1);
+    long size = size();
+    if (transform.isReversed()) {
+      bytes.copyTo(size - start - length, to, toOffset, length);
+      TransformedBytes.reverse(to, toOffset, toOffset + length);
+    } else {
+      bytes.copyTo(start, to, toOffset, length);
+    }
+    transform.apply(to, toOffset, length, start, size);
+  }
+
+  @Override
+  public byte get(long i) {
+    checkIndex(i);
+    long size = size();
+    byte b = bytes.get(transform.isReversed() ? size - 1 - i : i);
+    return transform.apply(b, i, size);
+  }
+
+  @Override
+  public I_Bytes getLeaf(long leafIndex) {
+    checkLeafIndex(leafIndex);
+    long size = size();
+    long start = leafIndex * getLeafSize();
+    long end = Math.min(size, start + getLeafSize());
+    I_Bytes source;
+    if (transform.isReversed()) {
+      //the source range may span two leaves of the other bytes
+      long sourceStart = size - end;
+      long sourceEnd = size - start;
+      long first = sourceStart / getLeafSize();
+      long last = (sourceEnd - 1) / getLeafSize();
+      int offset = (int) (sourceStart % getLeafSize());
+      if (first == last) {
+        source = Bytes.view(bytes.getLeaf(first), offset, offset + (int) (end - start));
+      } else {
+        I_Bytes a = bytes.getLeaf(first);
+        source = BytesRope.concat(Bytes.view(a, offset, a.size()), 
+            Bytes.view(bytes.getLeaf(last), 0, (int) (sourceEnd - last * getLeafSize())));
+      }
+    } else {
+      source = bytes.getLeaf(leafIndex);
+    }
+    return new TransformedBytes(source, transform, start, size);
+  }
+
+  public BytesTransform getTransform() {
+    return transform;
+  }
+
+  @Override
+  public long size() {
+    return bytes.size();
+  }
+}
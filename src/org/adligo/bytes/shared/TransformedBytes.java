@@ -0,0 +1,140 @@
+package org.adligo.bytes.shared;
+
+import java.util.Objects;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a immutable view of other I_Bytes, which applies a
+ * {@link BytesTransform} to each byte as it is read instead of 
+ * allocating a transformed copy.  {@link #copyTo(int, byte[], int, int)}
+ * copies the bytes in bulk and then applies the transform in place.
+ * A TransformedBytes of a TransformedBytes composes the transforms, 
+ * so the bytes are only transformed once.<br/>
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class TransformedBytes implements I_Bytes {
+  private final I_Bytes bytes;
+  /**
+   * The index in the whole view of the first byte, when this is 
+   * a leaf of a {@link TransformedBigBytes}.
+   */
+  private final long position;
+  private final int size;
+  /**
+   * The size of the whole view, when this is a leaf of a {@link TransformedBigBytes}.
+   */
+  private final long total;
+  private final BytesTransform transform;
+
+  /**
+   * 
+   * @param bytes
+   * @param transform
+   */
+  public TransformedBytes(I_Bytes bytes, BytesTransform transform) {
+    if (bytes instanceof TransformedBytes) {
+      TransformedBytes other = (TransformedBytes) bytes;
+      if (other.position == 0 && other.total == other.size) {
+        bytes = other.bytes;
+        transform = other.transform.andThen(transform);
+      }
+    }
+    this.bytes = Objects.requireNonNull(bytes);
+    this.transform = Objects.requireNonNull(transform);
+    this.position = 0;
+    this.size = bytes.size();
+    this.total = size;
+  }
+
+  /**
+   * 
+   * @param bytes the bytes in the source order, which are reversed
+   *   if the transform reverses the order
+   * @param transform
+   * @param position the index in the whole view of the first byte
+   * @param total the size of the whole view
+   */
+  TransformedBytes(I_Bytes bytes, BytesTransform transform, long position, long total) {
+    this.bytes = bytes;
+    this.transform = transform;
+    this.position = position;
+    this.size = bytes.size();
+    this.total = total;
+  }
+
+  /**
+   * Copies a range of the transformed bytes into the byte array.
+   * @param start the first index of these bytes to copy
+   * @param to the destination
+   * @param toOffset the first index in the destination to write
+   * @param length the number of bytes to copy
+   */
+  public void copyTo(int start, byte[] to, int toOffset, int length) {
+    if (start < 0 || length < 0 || start + length > size) {
+      throw new ArrayIndexOutOfBoundsException(start + length);
+    }
+    if (transform.isReversed()) {
+      Bytes.copy(bytes, size - start - length, to, toOffset, length);
+      reverse(to, toOffset, toOffset + length);
+    } else {
+      Bytes.copy(bytes, start, to, toOffset, length);
+    }
+    transform.apply(to, toOffset, length, position + start, total);
+  }
+
+  /**
+   * 
+   * @param i
+   * @return
+   * @throws ArrayIndexOutOfBoundsException if the integer is bigger than the size
+   */
+  public byte get(int i) {
+    if (i < 0 || i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    byte b = bytes.get(transform.isReversed() ? size - 1 - i : i);
+    return transform.apply(b, position + i, total);
+  }
+
+  public BytesTransform getTransform() {
+    return transform;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Reverses the order of the bytes in place.
+   * @param bytes
+   * @param start
+   * @param end
+   */
+  static void reverse(byte[] bytes, int start, int end) {
+    for (int i = start, j = end - 1; i < j; i++, j--) {
+      byte b = bytes[i];
+      bytes[i] = bytes[j];
+      bytes[j] = b;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package org.adligo.bytes.shared;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+
+/**
+ * This class is a range of zeros without a array, it is used for 
+ * the empty slots (holes) of sparse BigBytes and BigBytesMutants.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+final class ZeroBytes implements I_Bytes {
+  /**
+   * A array of zeros to visit, it MUST NOT be changed.
+   */
+  static final byte[] ZEROS = new byte[1024];
+  private final int size;
+
+  ZeroBytes(int size) {
+    this.size = size;
+  }
+
+  public byte get(int i) {
+    if (i < 0 || i >= size) {
+      throw new ArrayIndexOutOfBoundsException(i);
+    }
+    return 0;
+  }
+
+  public int size() {
+    return size;
+  }
+}
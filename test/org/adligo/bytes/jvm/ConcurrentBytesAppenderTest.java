@@ -0,0 +1,227 @@
+package org.adligo.bytes.jvm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.adligo.bytes.shared.Bytes;
+import org.adligo.bytes.shared.BytesView;
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ConcurrentBytesAppender.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class ConcurrentBytesAppenderTest {
+
+  @Test
+  public void testRecordsSpanChunks() {
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(4, 8);
+    appender.append(new byte[] {1, 2, 3}, 0, 3);
+    appender.append(new BytesView(new byte[] {0, 4, 5, 6, 7, 8, 9, 10, 11, 12}, 1, 10));
+    List<byte[]> records = poll(appender);
+    assertEquals(2, records.size());
+    assertArrayEquals(new byte[] {1, 2, 3}, records.get(0));
+    assertArrayEquals(new byte[] {4, 5, 6, 7, 8, 9, 10, 11, 12}, records.get(1));
+    assertEquals(0, poll(appender).size());
+  }
+
+  @Test
+  public void testFullAndTooBig() {
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(2, 8);
+    assertEquals(16, appender.getCapacity());
+    assertThrows(IllegalArgumentException.class, () -> appender.append(new byte[13], 0, 13));
+    appender.append(new byte[4], 0, 4);
+    appender.append(new byte[4], 0, 4);
+    //the ring is full until the consumer polls
+    assertThrows(IllegalStateException.class, () -> appender.append(new byte[4], 0, 4));
+    assertEquals(2, poll(appender).size());
+    appender.append(new byte[4], 0, 4);
+    assertEquals(1, poll(appender).size());
+  }
+
+  @Test
+  public void testMaxRecordSize() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentBytesAppender(1, 16));
+    ConcurrentBytesAppender two = new ConcurrentBytesAppender(2, 16);
+    assertEquals(16, two.getMaxRecordSize());
+    //the consumer is part way through the first chunk after each poll
+    for (int i = 0; i < 10; i++) {
+      two.append(new byte[8], 0, 8);
+      assertEquals(1, poll(two).size());
+    }
+
+    ConcurrentBytesAppender four = new ConcurrentBytesAppender(4, 16);
+    assertEquals(64, four.getCapacity());
+    assertEquals(48, four.getMaxRecordSize());
+    assertThrows(IllegalArgumentException.class, () -> four.append(new byte[56], 0, 56));
+    assertThrows(IllegalArgumentException.class, () -> four.append(new byte[49], 0, 49));
+    //the biggest record fits at each offset in a chunk
+    for (int i = 0; i < 8; i++) {
+      four.append(new byte[i], 0, i);
+      assertEquals(1, poll(four).size());
+      four.append(new byte[48], 0, 48);
+      List<byte[]> records = poll(four);
+      assertEquals(1, records.size());
+      assertEquals(48, records.get(0).length);
+    }
+  }
+
+  @Test
+  public void testRangeChecks() {
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(2, 8);
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> appender.append(new byte[4], 3, 2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> appender.append(new byte[4], -1, 2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> appender.append(new byte[4], 0, 5));
+    assertEquals(0, poll(appender).size());
+  }
+
+  @Test
+  public void testEmptyRecords() {
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(2, 4);
+    //the empty payload is at the start of a chunk which is NOT published yet
+    appender.append(new byte[0], 0, 0);
+    List<byte[]> records = poll(appender);
+    assertEquals(1, records.size());
+    assertEquals(0, records.get(0).length);
+
+    appender.append(Bytes.EMPTY);
+    appender.append(new byte[] {7}, 0, 0);
+    records = poll(appender);
+    assertEquals(2, records.size());
+    assertEquals(0, records.get(1).length);
+    appender.append(new byte[] {7}, 0, 1);
+    assertArrayEquals(new byte[] {7}, poll(appender).get(0));
+  }
+
+  @Test
+  public void testFailedRecordsAreSkipped() {
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(4, 8);
+    I_Bytes bad = new I_Bytes() {
+      @Override
+      public byte get(int i) {
+        if (i >= 5) {
+          throw new IllegalStateException("bad " + i);
+        }
+        return (byte) i;
+      }
+
+      @Override
+      public int size() {
+        return 10;
+      }
+    };
+    appender.append(new byte[] {1}, 0, 1);
+    assertThrows(IllegalStateException.class, () -> appender.append(bad));
+    appender.append(new byte[] {2}, 0, 1);
+    List<byte[]> records = poll(appender);
+    assertEquals(2, records.size());
+    assertArrayEquals(new byte[] {1}, records.get(0));
+    assertArrayEquals(new byte[] {2}, records.get(1));
+    //the skipped space is released
+    for (int i = 0; i < 10; i++) {
+      appender.append(new byte[12], 0, 12);
+      assertEquals(1, poll(appender).size());
+    }
+  }
+
+  @Test
+  public void testProducers() throws Exception {
+    int producers = 4;
+    int count = 20000;
+    ConcurrentBytesAppender appender = new ConcurrentBytesAppender(16, 256);
+    ExecutorService pool = Executors.newFixedThreadPool(producers);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (int p = 0; p < producers; p++) {
+        byte producer = (byte) p;
+        futures.add(pool.submit(() -> {
+          start.await();
+          for (int i = 0; i < count; i++) {
+            //producer, the sequence and i % 7 bytes of padding
+            byte[] record = new byte[5 + i % 7];
+            record[0] = producer;
+            record[1] = (byte) (i >>> 24);
+            record[2] = (byte) (i >>> 16);
+            record[3] = (byte) (i >>> 8);
+            record[4] = (byte) i;
+            while (true) {
+              try {
+                appender.append(record, 0, record.length);
+                break;
+              } catch (IllegalStateException full) {
+                Thread.yield();
+              }
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      int[] next = new int[producers];
+      int total = 0;
+      long deadline = System.currentTimeMillis() + 60000;
+      while (total < producers * count) {
+        assertTrue(System.currentTimeMillis() < deadline, "only consumed " + total);
+        total += appender.poll((r) -> {
+          int p = r.get(0);
+          int i = ((r.get(1) & 0xff) << 24) | ((r.get(2) & 0xff) << 16) | 
+              ((r.get(3) & 0xff) << 8) | (r.get(4) & 0xff);
+          //each producers records are in order
+          assertEquals(next[p], i);
+          assertEquals(5 + i % 7, r.size());
+          next[p]++;
+        });
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+      for (int p = 0; p < producers; p++) {
+        assertEquals(count, next[p]);
+      }
+    } finally {
+      pool.shutdownNow();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  private static List<byte[]> poll(ConcurrentBytesAppender appender) {
+    List<byte[]> r = new ArrayList<byte[]>();
+    appender.poll((b) -> {
+      byte[] copy = new byte[b.size()];
+      Bytes.copy(b, 0, copy, 0, copy.length);
+      r.add(copy);
+    });
+    return r;
+  }
+}
@@ -0,0 +1,131 @@
+package org.adligo.bytes.jvm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.adligo.bytes.shared.BigBytesMutant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests writing and reading FileBigBytes files, including corrupt files.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class FileBigBytesTest {
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    BigBytesMutant mutant = mutant();
+    for (boolean compress : new boolean[] {false, true}) {
+      Path path = Files.createTempFile("FileBigBytesTest", ".bin");
+      try {
+        FileBigBytes.write(mutant, path, compress);
+        try (FileBigBytes file = new FileBigBytes(path, 2)) {
+          assertEquals(mutant.size(), file.size());
+          assertEquals(mutant.getLeafSize(), file.getLeafSize());
+          assertEquals(mutant.getFanOut(), file.getFanOut());
+          byte[] expected = new byte[(int) mutant.size()];
+          mutant.copyTo(0, expected, 0, expected.length);
+          byte[] actual = new byte[expected.length];
+          file.copyTo(0, actual, 0, actual.length);
+          assertArrayEquals(expected, actual);
+          for (int i = expected.length - 1; i >= 0; i -= 37) {
+            assertEquals(expected[i], file.get(i));
+          }
+          assertEquals(mutant.nextHole(0), file.nextHole(0));
+          assertEquals(mutant.nextPopulated(mutant.nextHole(0)), 
+              file.nextPopulated(file.nextHole(0)));
+        }
+        if (compress) {
+          //the text leaves compress, the holes are NOT stored
+          assertTrue(Files.size(path) < mutant.size() / 4, "size " + Files.size(path));
+        }
+      } finally {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Test
+  public void testNotABigBytesFile() throws IOException {
+    Path path = Files.createTempFile("FileBigBytesTest", ".bin");
+    try {
+      Files.write(path, new byte[10]);
+      assertThrows(IOException.class, () -> new FileBigBytes(path));
+      Files.write(path, new byte[100]);
+      assertThrows(IOException.class, () -> new FileBigBytes(path));
+
+      FileBigBytes.write(mutant(), path, false);
+      byte[] file = Files.readAllBytes(path);
+      //truncated
+      Files.write(path, Arrays.copyOf(file, file.length - 1));
+      assertThrows(IOException.class, () -> new FileBigBytes(path));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testNegativeLeafOffsetIsCorrupt() throws IOException {
+    Path path = Files.createTempFile("FileBigBytesTest", ".bin");
+    try {
+      FileBigBytes.write(mutant(), path, false);
+      try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+        raf.seek(raf.length() - 40);
+        long indexOffset = raf.readLong();
+        raf.seek(indexOffset);
+        raf.writeLong(-8);
+      }
+      try (FileBigBytes file = new FileBigBytes(path)) {
+        UncheckedIOException x = assertThrows(UncheckedIOException.class, () -> file.get(0));
+        assertTrue(x.getCause().getMessage().startsWith(FileBigBytes.NOT_A_BIG_BYTES_FILE));
+        //the other leaves are still readable
+        assertEquals(mutant().get(100), file.get(100));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  /**
+   * 
+   * @return text, a hole and more text
+   */
+  private static BigBytesMutant mutant() {
+    BigBytesMutant r = new BigBytesMutant(4, 64);
+    byte[] text = "some text which repeats, some text which repeats. ".getBytes();
+    for (int i = 0; i < 100; i++) {
+      r.add(text, 0, text.length);
+    }
+    r.addZeros(100000);
+    r.add(text, 0, 30);
+    return r;
+  }
+}
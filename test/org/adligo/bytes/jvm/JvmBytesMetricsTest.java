@@ -0,0 +1,70 @@
+package org.adligo.bytes.jvm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.adligo.bytes.shared.Bytes;
+import org.adligo.bytes.shared.BytesMetrics;
+import org.adligo.bytes.shared.BytesMutant;
+import org.adligo.bytes.shared.BytesView;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the JMX adapter of the I_BytesMetricsListener.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class JvmBytesMetricsTest {
+
+  @Test
+  public void testInstallCountsAndUninstall() throws Exception {
+    JvmBytesMetrics metrics = JvmBytesMetrics.install();
+    try {
+      assertSame(metrics, BytesMetrics.getListener());
+      ObjectName name = new ObjectName(JvmBytesMetrics.OBJECT_NAME);
+      assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+
+      BytesMutant mutant = new BytesMutant(4, 4);
+      mutant.add(new byte[6], 0, 6);
+      Bytes.concat(mutant, new BytesView(new byte[2], 0, 2));
+      assertEquals(2, metrics.getChunksAllocated());
+      assertEquals(6, metrics.getBytesCopied());
+      assertEquals(8, metrics.getBytesShared());
+      assertEquals(8L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, 
+          "BytesShared"));
+
+      metrics.reset();
+      assertEquals(0, metrics.getBytesShared());
+    } finally {
+      metrics.uninstall();
+    }
+    assertNull(BytesMetrics.getListener());
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+        new ObjectName(JvmBytesMetrics.OBJECT_NAME)));
+  }
+}
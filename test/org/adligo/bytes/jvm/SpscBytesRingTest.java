@@ -0,0 +1,80 @@
+package org.adligo.bytes.jvm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.adligo.bytes.shared.Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the SpscBytesRing with a producer and a consumer thread.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class SpscBytesRingTest {
+
+  @Test
+  public void testProducerAndConsumer() throws Exception {
+    byte[] input = new byte[1 << 20];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = (byte) (i * 31 + (i >>> 9));
+    }
+    SpscBytesRing ring = new SpscBytesRing(4, 64);
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> producer = pool.submit(() -> {
+        int written = 0;
+        while (written < input.length) {
+          int n = ring.write(input, written, Math.min(input.length, written + 100));
+          if (n == 0) {
+            Thread.yield();
+          }
+          written += n;
+        }
+      });
+      byte[] output = new byte[input.length];
+      int read = 0;
+      long deadline = System.currentTimeMillis() + 60000;
+      while (read < output.length) {
+        assertTrue(System.currentTimeMillis() < deadline, "only read " + read);
+        int n = Math.min(ring.available(), 77);
+        if (n == 0) {
+          Thread.yield();
+          continue;
+        }
+        //copy the view before it is consumed
+        Bytes.copy(ring.peek(n), 0, output, read, n);
+        ring.consume(n);
+        read += n;
+      }
+      producer.get();
+      assertArrayEquals(input, output);
+    } finally {
+      pool.shutdownNow();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+}
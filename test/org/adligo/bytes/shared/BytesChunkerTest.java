@@ -0,0 +1,159 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the content defined chunks of the BytesChunker.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesChunkerTest {
+  private static final int MIN = 256;
+  private static final int AVERAGE = 1024;
+  private static final int MAX = 4096;
+
+  @Test
+  public void testChunkSizes() {
+    byte[] input = CompressedBigBytesTest.random(1 << 20, 9);
+    List<byte[]> chunks = chunk(new BytesView(input, 0, input.length));
+    BytesMutant all = new BytesMutant();
+    for (int i = 0; i < chunks.size(); i++) {
+      byte[] c = chunks.get(i);
+      if (i < chunks.size() - 1) {
+        assertTrue(c.length >= MIN && c.length <= MAX, "chunk " + i + " " + c.length);
+      }
+      all.add(c, 0, c.length);
+    }
+    assertArrayEquals(input, BytesRopeTest.copy(all));
+    int average = input.length / chunks.size();
+    assertTrue(average > AVERAGE / 2 && average < AVERAGE * 2, "average " + average);
+  }
+
+  @Test
+  public void testMaxSizeForConstantBytes() {
+    List<byte[]> chunks = chunk(new ZeroBytes(10000));
+    assertEquals(3, chunks.size());
+    assertEquals(MAX, chunks.get(0).length);
+    assertEquals(MAX, chunks.get(1).length);
+    assertEquals(10000 - 2 * MAX, chunks.get(2).length);
+  }
+
+  @Test
+  public void testChunksDoNotDependOnTheParts() {
+    byte[] input = CompressedBigBytesTest.random(200000, 10);
+    List<byte[]> expected = chunk(new BytesView(input, 0, input.length));
+
+    //a rope of separate arrays
+    I_Bytes[] parts = new I_Bytes[input.length / 1000];
+    for (int i = 0; i < parts.length; i++) {
+      byte[] part = Arrays.copyOfRange(input, i * 1000, i * 1000 + 1000);
+      parts[i] = new BytesView(part, 0, part.length);
+    }
+    assertChunks(expected, chunk(Bytes.concat(parts)));
+
+    //many small adds of a BytesMutant, which is cleared after each add
+    List<byte[]> actual = new ArrayList<byte[]>();
+    BytesChunker chunker = new BytesChunker(MIN, AVERAGE, MAX, 
+        (c) -> actual.add(BytesRopeTest.copy(c)));
+    BytesMutant mutant = new BytesMutant(4, 64);
+    for (int i = 0; i < input.length; i += 333) {
+      mutant.add(input, i, Math.min(input.length, i + 333));
+      chunker.add(mutant);
+      mutant.clear();
+    }
+    chunker.finish();
+    assertChunks(expected, actual);
+
+    //BigBytes and TransformedBytes
+    BigBytesMutant big = new BigBytesMutant(4, 777);
+    big.add(input, 0, input.length);
+    List<byte[]> bigChunks = new ArrayList<byte[]>();
+    chunker = new BytesChunker(MIN, AVERAGE, MAX, 
+        (c) -> bigChunks.add(BytesRopeTest.copy(c)));
+    chunker.add(big);
+    chunker.finish();
+    assertChunks(expected, bigChunks);
+    byte[] masked = input.clone();
+    BytesTransform.xor((byte) 7, (byte) 9).apply(masked, 0, masked.length, 0, masked.length);
+    assertChunks(expected, chunk(new TransformedBytes(new BytesView(masked, 0, masked.length),
+        BytesTransform.xor((byte) 7, (byte) 9))));
+  }
+
+  @Test
+  public void testInsertOnlyChangesNearbyChunks() {
+    byte[] input = CompressedBigBytesTest.random(200000, 11);
+    byte[] edited = new byte[input.length + 10];
+    System.arraycopy(input, 0, edited, 0, 100000);
+    System.arraycopy(input, 100000, edited, 100010, 100000);
+    Set<String> before = new HashSet<String>();
+    for (byte[] c : chunk(new BytesView(input, 0, input.length))) {
+      before.add(Arrays.toString(c));
+    }
+    List<byte[]> after = chunk(new BytesView(edited, 0, edited.length));
+    int changed = 0;
+    for (byte[] c : after) {
+      if (!before.contains(Arrays.toString(c))) {
+        changed++;
+      }
+    }
+    assertTrue(changed >= 1 && changed <= 3, "changed " + changed + " of " + after.size());
+  }
+
+  @Test
+  public void testSizeChecks() {
+    assertThrows(IllegalArgumentException.class, () -> chunker(0, 1024, 4096));
+    assertThrows(IllegalArgumentException.class, () -> chunker(1024, 1024, 4096));
+    assertThrows(IllegalArgumentException.class, () -> chunker(256, 1000, 4096));
+    assertThrows(IllegalArgumentException.class, () -> chunker(256, 1024, 1024));
+  }
+
+  private static void assertChunks(List<byte[]> expected, List<byte[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i), actual.get(i), "chunk " + i);
+    }
+  }
+
+  private static BytesChunker chunker(int minSize, int averageSize, int maxSize) {
+    return new BytesChunker(minSize, averageSize, maxSize, (c) -> {});
+  }
+
+  private static List<byte[]> chunk(I_Bytes bytes) {
+    List<byte[]> r = new ArrayList<byte[]>();
+    BytesChunker chunker = new BytesChunker(MIN, AVERAGE, MAX, 
+        (c) -> r.add(BytesRopeTest.copy(c)));
+    chunker.add(bytes);
+    chunker.finish();
+    return r;
+  }
+}
@@ -0,0 +1,132 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests encoding and applying BytesDelta, including corrupt deltas.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesDeltaTest {
+
+  @Test
+  public void testRoundTrips() {
+    byte[] base = CompressedBigBytesTest.random(20000, 5);
+    byte[][] targets = {
+      base,
+      new byte[0],
+      edit(base, 10000, 0, 100),
+      edit(base, 5000, 300, 0),
+      edit(base, 0, 7, 3),
+      edit(base, base.length - 5, 5, 40),
+      CompressedBigBytesTest.random(3000, 6)
+    };
+    BytesDelta delta = new BytesDelta(new BytesView(base, 0, base.length), 16);
+    for (int i = 0; i < targets.length; i++) {
+      byte[] target = targets[i];
+      BytesMutant out = new BytesMutant();
+      delta.encode(new BytesView(target, 0, target.length), out);
+      I_Bytes r = BytesDelta.apply(new BytesView(base, 0, base.length), out);
+      assertArrayEquals(target, BytesRopeTest.copy(r), "target " + i);
+      if (i < 6) {
+        assertTrue(out.size() < 200, "target " + i + " delta " + out.size());
+      }
+    }
+  }
+
+  @Test
+  public void testBigBytesRoundTrip() {
+    byte[] base = CompressedBigBytesTest.random(50000, 7);
+    byte[] target = edit(base, 30000, 10, 1000);
+    BigBytesMutant bigBase = new BigBytesMutant(4, 1000);
+    bigBase.add(base, 0, base.length);
+    BigBytesMutant bigTarget = new BigBytesMutant(4, 1000);
+    bigTarget.add(target, 0, target.length);
+
+    BytesMutant out = new BytesMutant();
+    new BytesDelta(bigBase).encode(bigTarget, out);
+    assertTrue(out.size() < 1200, "delta " + out.size());
+    BigBytes r = BytesDelta.apply(bigBase, out);
+    assertEquals(target.length, r.size());
+    assertEquals(bigBase.getLeafSize(), r.getLeafSize());
+    byte[] copy = new byte[target.length];
+    r.copyTo(0, copy, 0, copy.length);
+    assertArrayEquals(target, copy);
+  }
+
+  @Test
+  public void testCorruptDeltas() {
+    byte[] array = CompressedBigBytesTest.random(100, 8);
+    //the base is a view in the middle of the array
+    I_Bytes base = new BytesView(array, 40, 60);
+    //a negative from, as a 10 byte varint
+    assertCorrupt(base, delta(20, 4, BytesDelta.COPY, -8, 4));
+    assertCorrupt(base, delta(20, 4, BytesDelta.COPY, 0, -1));
+    assertCorrupt(base, delta(20, 4, BytesDelta.COPY, 18, 4));
+    assertCorrupt(base, delta(20, 4, BytesDelta.COPY, Long.MAX_VALUE, 4));
+    assertCorrupt(base, delta(20, 1, BytesDelta.INSERT, -1, 7));
+    assertCorrupt(base, delta(20, 2, BytesDelta.INSERT, 2, 7));
+    //the wrong base size, target size or op
+    assertCorrupt(base, delta(19, 4, BytesDelta.COPY, 0, 4));
+    assertCorrupt(base, delta(20, 5, BytesDelta.COPY, 0, 4));
+    assertCorrupt(base, delta(20, 4, (byte) 3, 0, 4));
+    assertEquals(4, BytesDelta.apply(base, delta(20, 4, BytesDelta.COPY, 16, 4)).size());
+  }
+
+  private static void assertCorrupt(I_Bytes base, I_Bytes delta) {
+    IllegalArgumentException x = assertThrows(IllegalArgumentException.class, 
+        () -> BytesDelta.apply(base, delta));
+    assertTrue(x.getMessage().startsWith(BytesDelta.CORRUPT_DELTA), x.getMessage());
+  }
+
+  private static I_Bytes delta(long baseSize, long targetSize, byte op, long a, long b) {
+    BytesMutant r = new BytesMutant();
+    varint(r, baseSize);
+    varint(r, targetSize);
+    r.add(op);
+    varint(r, a);
+    varint(r, b);
+    return r;
+  }
+
+  private static byte[] edit(byte[] bytes, int at, int remove, int insert) {
+    byte[] inserted = CompressedBigBytesTest.random(insert, at);
+    byte[] r = new byte[bytes.length - remove + insert];
+    System.arraycopy(bytes, 0, r, 0, at);
+    System.arraycopy(inserted, 0, r, at, insert);
+    System.arraycopy(bytes, at + remove, r, at + insert, bytes.length - at - remove);
+    return r;
+  }
+
+  private static void varint(BytesMutant out, long value) {
+    while ((value & ~0x7fL) != 0) {
+      out.add((byte) ((value & 0x7f) | 0x80));
+      value = value >>> 7;
+    }
+    out.add((byte) value);
+  }
+}
@@ -0,0 +1,118 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the BytesInterner.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesInternerTest {
+
+  @Test
+  public void testSameContentIsCanonical() {
+    BytesInterner interner = new BytesInterner(10);
+    byte[] big = {9, 1, 2, 3, 9};
+    I_Bytes a = interner.intern(new BytesView(big, 1, 4));
+    I_Bytes b = interner.intern(BytesRopeTest.view(1, 2, 3));
+    BytesMutant m = new BytesMutant(2, 2);
+    m.add(new byte[] {1, 2, 3}, 0, 3);
+    I_Bytes c = interner.intern(m);
+    assertSame(a, b);
+    assertSame(a, c);
+    assertEquals(1, interner.size());
+    assertArrayEquals(new byte[] {1, 2, 3}, BytesRopeTest.copy(a));
+    //the canonical bytes are a exactly sized copy
+    assertEquals(3, ((BytesView) a).getArray().length);
+    big[2] = 7;
+    assertEquals(2, a.get(1));
+    assertNotSame(a, interner.intern(BytesRopeTest.view(1, 2)));
+  }
+
+  @Test
+  public void testMaxSizeIsBounded() {
+    BytesInterner interner = new BytesInterner(10, 3);
+    for (int i = 0; i < 1000; i++) {
+      interner.intern(BytesRopeTest.view(i, i >> 8));
+    }
+    assertEquals(10, interner.size());
+  }
+
+  @Test
+  public void testReferencedEntriesStay() {
+    BytesInterner interner = new BytesInterner(2, 1);
+    I_Bytes hot = interner.intern(BytesRopeTest.view(0));
+    for (int i = 1; i < 100; i++) {
+      interner.intern(BytesRopeTest.view(i));
+      assertSame(hot, interner.intern(BytesRopeTest.view(0)));
+    }
+  }
+
+  @Test
+  public void testSizeChecks() {
+    assertThrows(IllegalArgumentException.class, () -> new BytesInterner(0));
+    assertThrows(IllegalArgumentException.class, () -> new BytesInterner(1, 0));
+  }
+
+  @Test
+  public void testThreads() throws Exception {
+    BytesInterner interner = new BytesInterner(10000);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<I_Bytes[]>> results = new ArrayList<Future<I_Bytes[]>>();
+      for (int t = 0; t < 4; t++) {
+        results.add(pool.submit(() -> {
+          I_Bytes[] r = new I_Bytes[500];
+          for (int i = 0; i < r.length; i++) {
+            r[i] = interner.intern(BytesRopeTest.view(i, i >> 8));
+          }
+          return r;
+        }));
+      }
+      I_Bytes[] first = results.get(0).get();
+      for (int t = 1; t < 4; t++) {
+        I_Bytes[] other = results.get(t).get();
+        for (int i = 0; i < first.length; i++) {
+          assertSame(first[i], other[i]);
+        }
+      }
+      assertEquals(500, interner.size());
+    } finally {
+      pool.shutdown();
+      assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the events which are reported to the I_BytesMetricsListener.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesMetricsTest {
+
+  /**
+   * Sums the events.
+   */
+  static class Totals implements I_BytesMetricsListener {
+    int dimensions;
+    long leafCount;
+    long copied;
+    long shared;
+    long allocated;
+    long recycled;
+    int hits;
+    int misses;
+
+    @Override
+    public void onBigBytesShape(int dimensions, long leafCount) {
+      this.dimensions = dimensions;
+      this.leafCount = leafCount;
+    }
+
+    @Override
+    public void onBytesCopied(long length) {
+      copied += length;
+    }
+
+    @Override
+    public void onBytesShared(long length) {
+      shared += length;
+    }
+
+    @Override
+    public void onChunkAllocated(int chunkSize) {
+      allocated++;
+    }
+
+    @Override
+    public void onChunkRecycled(int chunkSize) {
+      recycled++;
+    }
+
+    @Override
+    public void onPoolAccess(boolean hit) {
+      if (hit) {
+        hits++;
+      } else {
+        misses++;
+      }
+    }
+  }
+
+  @Test
+  public void testSharedBytesAreReportedOnce() {
+    Totals t = new Totals();
+    BytesMetrics.setListener(t);
+    try {
+      BytesMutant mutant = new BytesMutant();
+      mutant.add(new byte[8], 0, 8);
+      Bytes.concat(mutant, new BytesView(new byte[2], 0, 2));
+      assertEquals(10, t.shared);
+
+      t.shared = 0;
+      Bytes.slice(mutant, 0, 1);
+      assertEquals(1, t.shared);
+
+      t.shared = 0;
+      mutant.freeze();
+      assertEquals(8, t.shared);
+    } finally {
+      BytesMetrics.setListener(null);
+    }
+  }
+
+  @Test
+  public void testChunksAreRecycledWhenReused() {
+    Totals t = new Totals();
+    BytesMetrics.setListener(t);
+    try {
+      BytesMutant mutant = new BytesMutant(4, 4);
+      mutant.add(new byte[12], 0, 12);
+      assertEquals(3, t.allocated);
+      mutant.clear();
+      assertEquals(0, t.recycled);
+      mutant.add((byte) 1);
+      assertEquals(1, t.recycled);
+      mutant.add(new byte[4], 0, 4);
+      assertEquals(2, t.recycled);
+      assertEquals(3, t.allocated);
+      
+      //frozen chunks are NOT kept
+      mutant.freeze();
+      mutant.clear();
+      mutant.add(new byte[8], 0, 8);
+      assertEquals(3, t.recycled);
+      assertEquals(4, t.allocated);
+    } finally {
+      BytesMetrics.setListener(null);
+    }
+  }
+
+  @Test
+  public void testBigBytesShapeCountsAllocatedLeaves() {
+    Totals t = new Totals();
+    BytesMetrics.setListener(t);
+    try {
+      BigBytesMutant mutant = new BigBytesMutant(2, 4);
+      mutant.addZeros(40);
+      mutant.add((byte) 1);
+      assertEquals(1, t.leafCount);
+      assertEquals(4, t.dimensions);
+      mutant.set(0, (byte) 1);
+      assertEquals(2, t.leafCount);
+    } finally {
+      BytesMetrics.setListener(null);
+    }
+  }
+
+  @Test
+  public void testLeafCacheAccess() {
+    Totals t = new Totals();
+    BytesMetrics.setListener(t);
+    try {
+      LeafCache cache = new LeafCache(1);
+      I_Bytes leaf = new BytesView(new byte[1], 0, 1);
+      cache.get(0);
+      cache.put(0, leaf);
+      cache.get(0);
+      cache.put(1, leaf);
+      cache.get(0);
+      assertEquals(1, t.hits);
+      assertEquals(2, t.misses);
+    } finally {
+      BytesMetrics.setListener(null);
+    }
+  }
+}
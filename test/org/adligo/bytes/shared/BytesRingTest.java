@@ -0,0 +1,89 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the BytesRing.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesRingTest {
+
+  @Test
+  public void testWriteAndConsumeWrapAround() {
+    BytesRing ring = new BytesRing(3, 4);
+    assertEquals(12, ring.getCapacity());
+    byte[] input = CompressedBigBytesTest.random(1000, 3);
+    BytesMutant out = new BytesMutant();
+    int written = 0;
+    int step = 1;
+    while (out.size() < input.length) {
+      written += ring.write(input, written, Math.min(input.length, written + step));
+      assertEquals(ring.getCapacity(), ring.available() + ring.remaining());
+      int n = Math.min(ring.available(), step % 5 + 1);
+      out.add(ring.peek(n));
+      ring.consume(n);
+      step = step % 11 + 1;
+    }
+    assertArrayEquals(input, BytesRopeTest.copy(out));
+  }
+
+  @Test
+  public void testWriteOnlyWhatFits() {
+    BytesRing ring = new BytesRing(2, 4);
+    assertEquals(8, ring.write(new byte[10], 0, 10));
+    assertEquals(0, ring.write(BytesRopeTest.view(1), 0, 1));
+    ring.consume(3);
+    assertEquals(3, ring.write(BytesRopeTest.view(1, 2, 3, 4), 0, 4));
+    assertEquals(8, ring.available());
+    assertArrayEquals(new byte[] {0, 0, 0, 0, 0, 1, 2, 3}, BytesRopeTest.copy(ring.peek(8)));
+  }
+
+  @Test
+  public void testRangeChecks() {
+    BytesRing ring = new BytesRing(2, 4);
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> ring.write(new byte[4], 3, 2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> ring.write(new byte[4], -1, 2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> ring.write(new byte[4], 0, 5));
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> ring.write(BytesRopeTest.view(1, 2), 2, 1));
+    assertEquals(0, ring.available());
+    ring.write(new byte[2], 0, 2);
+    assertThrows(IllegalArgumentException.class, () -> ring.peek(3));
+    assertThrows(IllegalArgumentException.class, () -> ring.consume(-1));
+    assertThrows(IllegalArgumentException.class, () -> new BytesRing(0, 4));
+  }
+
+  @Test
+  public void testPeekIsOnlyValidUntilConsumed() {
+    BytesRing ring = new BytesRing(1, 4);
+    ring.write(new byte[] {1, 2, 3, 4}, 0, 4);
+    byte[] copy = BytesRopeTest.copy(ring.peek(4));
+    ring.consume(4);
+    ring.write(new byte[] {5, 6, 7, 8}, 0, 4);
+    assertArrayEquals(new byte[] {1, 2, 3, 4}, copy);
+    assertArrayEquals(new byte[] {5, 6, 7, 8}, BytesRopeTest.copy(ring.peek(4)));
+  }
+}
@@ -0,0 +1,124 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests Bytes.concat, Bytes.slice and the BytesRope and BytesSlice
+ * they return.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesRopeTest {
+
+  @Test
+  public void testConcat() {
+    I_Bytes rope = Bytes.concat(view(0, 1, 2), view(3), view(4, 5, 6, 7));
+    assertTrue(rope instanceof BytesRope);
+    assertEquals(8, rope.size());
+    assertArrayEquals(new byte[] {0, 1, 2, 3, 4, 5, 6, 7}, copy(rope));
+    for (int i = 0; i < 8; i++) {
+      assertEquals(i, rope.get(i));
+    }
+  }
+
+  @Test
+  public void testConcatFlattensRopesAndSkipsEmptyParts() {
+    I_Bytes inner = Bytes.concat(view(1, 2), view(3));
+    I_Bytes rope = Bytes.concat(view(0), view(), inner, view(4));
+    assertEquals(4, ((BytesRope) rope).getPartCount());
+    assertArrayEquals(new byte[] {0, 1, 2, 3, 4}, copy(rope));
+    assertEquals(0, Bytes.concat().size());
+    I_Bytes one = view(9);
+    assertSame(one, Bytes.concat(one, view()));
+  }
+
+  @Test
+  public void testConcatMergesAdjacentViews() {
+    byte[] array = {0, 1, 2, 3, 4, 5};
+    I_Bytes r = Bytes.concat(new BytesView(array, 0, 2), new BytesView(array, 2, 6));
+    assertTrue(r instanceof BytesView);
+    assertArrayEquals(array, copy(r));
+  }
+
+  @Test
+  public void testSlice() {
+    I_Bytes rope = Bytes.concat(view(0, 1, 2), view(3, 4), view(5, 6, 7));
+    assertArrayEquals(new byte[] {2, 3, 4, 5}, copy(Bytes.slice(rope, 2, 6)));
+    assertArrayEquals(new byte[] {3, 4}, copy(((BytesRope) rope).slice(3, 5)));
+    assertEquals(0, Bytes.slice(rope, 8, 8).size());
+    assertThrows(IllegalArgumentException.class, () -> Bytes.slice(rope, -1, 2));
+    assertThrows(IllegalArgumentException.class, () -> Bytes.slice(rope, 3, 2));
+    assertThrows(IllegalArgumentException.class, () -> Bytes.slice(rope, 0, 9));
+    assertThrows(IllegalArgumentException.class, () -> ((BytesRope) rope).slice(0, 9));
+  }
+
+  @Test
+  public void testCopyToChecksTheRange() {
+    I_Bytes rope = Bytes.concat(view(0, 1, 2), view(3, 4));
+    byte[] to = new byte[5];
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> ((BytesRope) rope).copyTo(-1, to, 0, 2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> ((BytesRope) rope).copyTo(0, to, 0, -1));
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> ((BytesRope) rope).copyTo(4, to, 0, 2));
+    I_Bytes slice = Bytes.slice(new ZeroBytes(10), 2, 6);
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> slice.get(4));
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> slice.get(-1));
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> ((BytesSlice) slice).copyTo(2, to, 0, 3));
+  }
+
+  @Test
+  public void testMutantsAreFrozen() {
+    BytesMutant mutant = new BytesMutant(2, 4);
+    mutant.add(new byte[] {0, 1, 2, 3, 4, 5}, 0, 6);
+    I_Bytes rope = Bytes.concat(mutant, view(6));
+    I_Bytes slice = Bytes.slice(mutant, 1, 3);
+    mutant.set(1, (byte) 9);
+    mutant.add((byte) 7);
+    mutant.clear();
+    mutant.add(new byte[] {8, 8, 8, 8, 8, 8}, 0, 6);
+    assertArrayEquals(new byte[] {0, 1, 2, 3, 4, 5, 6}, copy(rope));
+    assertArrayEquals(new byte[] {1, 2}, copy(slice));
+  }
+
+  static byte[] copy(I_Bytes bytes) {
+    byte[] r = new byte[bytes.size()];
+    Bytes.copy(bytes, 0, r, 0, r.length);
+    return r;
+  }
+
+  static I_Bytes view(int... values) {
+    byte[] r = new byte[values.length];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = (byte) values[i];
+    }
+    return new BytesView(r, 0, r.length);
+  }
+}
@@ -0,0 +1,124 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the unsigned BytesComparator and the BytesSort.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesSortTest {
+
+  @Test
+  public void testCompareIsUnsigned() {
+    BytesComparator c = BytesComparator.INSTANCE;
+    assertTrue(c.compare(view(0x7f), view(0x80)) < 0);
+    assertTrue(c.compare(view(0xff), view(0x00)) > 0);
+    assertTrue(c.compare(view(1, 2), view(1, 2, 0)) < 0);
+    assertTrue(c.compare(view(), view(0)) < 0);
+    assertEquals(0, c.compare(view(1, 2, 3), view(1, 2, 3)));
+    //after the prefix
+    assertTrue(c.compare(view(1, 1, 1, 1, 1, 1, 1, 1, 0x90), 
+        view(1, 1, 1, 1, 1, 1, 1, 1, 0x10)) > 0);
+    assertTrue(c.compare(view(1, 1, 1, 1, 1, 1, 1, 1), 
+        view(1, 1, 1, 1, 1, 1, 1, 1, 0)) < 0);
+  }
+
+  @Test
+  public void testPrefix() {
+    assertEquals(0x0102000000000000L, BytesComparator.prefix(view(1, 2)));
+    assertEquals(0xff00000000000000L, BytesComparator.prefix(view(0xff)));
+    assertTrue(BytesComparator.comparePrefix(0xff00000000000000L, 1L) > 0);
+  }
+
+  @Test
+  public void testSortMatchesTheComparator() {
+    I_Bytes[] keys = keys(5000, 1);
+    I_Bytes[] expected = keys.clone();
+    Arrays.sort(expected, BytesComparator.INSTANCE);
+    BytesSort.sort(keys);
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(0, BytesComparator.INSTANCE.compare(expected[i], keys[i]), "at " + i);
+    }
+  }
+
+  @Test
+  public void testSortRange() {
+    I_Bytes[] keys = {view(9), view(3), view(2), view(1), view(0)};
+    I_Bytes first = keys[0];
+    I_Bytes last = keys[4];
+    BytesSort.sort(keys, 1, 4);
+    assertSame(first, keys[0]);
+    assertSame(last, keys[4]);
+    assertEquals(1, keys[1].get(0));
+    assertEquals(2, keys[2].get(0));
+    assertEquals(3, keys[3].get(0));
+  }
+
+  @Test
+  public void testSortListWithSharedPrefixes() {
+    List<I_Bytes> keys = new ArrayList<I_Bytes>();
+    byte[] prefix = "a/long/shared/prefix/".getBytes();
+    for (int i = 300; i >= 0; i--) {
+      BytesMutant m = new BytesMutant(2, 8);
+      m.add(prefix, 0, prefix.length);
+      m.add((byte) (i >> 8));
+      if (i % 3 != 0) {
+        m.add((byte) i);
+      }
+      keys.add(m.freeze());
+    }
+    BytesSort.sort(keys);
+    for (int i = 1; i < keys.size(); i++) {
+      assertTrue(BytesComparator.INSTANCE.compare(keys.get(i - 1), keys.get(i)) <= 0, 
+          "at " + i);
+    }
+  }
+
+  static I_Bytes[] keys(int count, long seed) {
+    I_Bytes[] r = new I_Bytes[count];
+    long x = seed;
+    for (int i = 0; i < count; i++) {
+      x = x * 6364136223846793005L + 1442695040888963407L;
+      byte[] key = new byte[(int) ((x >>> 33) % 20)];
+      for (int j = 0; j < key.length; j++) {
+        x = x * 6364136223846793005L + 1442695040888963407L;
+        //a small alphabet, so that keys share prefixes
+        key[j] = (byte) (((x >>> 60) & 3) * 0x50);
+      }
+      r[i] = new BytesView(key, 0, key.length);
+    }
+    return r;
+  }
+
+  static I_Bytes view(int... values) {
+    return BytesRopeTest.view(values);
+  }
+}
@@ -0,0 +1,118 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BytesUtf8 against the JDK UTF-8 charset.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class BytesUtf8Test {
+  private static final String MIXED = "ascii text, \u00e9t\u00e9 \u20ac 100, " +
+      "\u65e5\u672c\u8a9e and \ud83d\ude00\ud83c\udf89 emoji";
+
+  @Test
+  public void testEncodeAcrossChunks() {
+    for (int chunkSize = 1; chunkSize < 9; chunkSize++) {
+      BytesMutant m = new BytesMutant(2, chunkSize);
+      BytesUtf8.encode(MIXED, m);
+      assertArrayEquals(MIXED.getBytes(StandardCharsets.UTF_8), BytesRopeTest.copy(m),
+          "chunkSize " + chunkSize);
+    }
+  }
+
+  @Test
+  public void testEncodeRange() {
+    BytesMutant m = new BytesMutant();
+    m.add((byte) 'x');
+    BytesUtf8.encode(MIXED, 13, 20, m);
+    byte[] expected = ("x" + MIXED.substring(13, 20)).getBytes(StandardCharsets.UTF_8);
+    assertArrayEquals(expected, BytesRopeTest.copy(m));
+  }
+
+  @Test
+  public void testUnpairedSurrogatesEncodeLikeTheJdk() {
+    String s = "a\ud83db\ude00";
+    BytesMutant m = new BytesMutant();
+    BytesUtf8.encode(s, m);
+    assertArrayEquals(s.getBytes(StandardCharsets.UTF_8), BytesRopeTest.copy(m));
+  }
+
+  @Test
+  public void testDecodeSplitCharacters() {
+    byte[] utf8 = MIXED.getBytes(StandardCharsets.UTF_8);
+    //every split point, so multibyte characters span parts
+    for (int split = 0; split <= utf8.length; split++) {
+      I_Bytes rope = Bytes.concat(new BytesView(utf8.clone(), 0, split), 
+          new BytesView(utf8.clone(), split, utf8.length));
+      assertEquals(MIXED, BytesUtf8.decode(rope), "split " + split);
+    }
+  }
+
+  @Test
+  public void testDecodeBigBytesAndCharArray() {
+    byte[] utf8 = MIXED.getBytes(StandardCharsets.UTF_8);
+    BigBytesMutant big = new BigBytesMutant(2, 5);
+    big.add(utf8, 0, utf8.length);
+    StringBuilder sb = new StringBuilder();
+    BytesUtf8.decode(big, 0, big.size(), sb);
+    assertEquals(MIXED, sb.toString());
+
+    char[] chars = new char[utf8.length + 2];
+    int n = BytesUtf8.decode(big, 0, big.size(), chars, 2);
+    assertEquals(MIXED, new String(chars, 2, n));
+    n = BytesUtf8.decode(new BytesView(utf8, 0, utf8.length), 0, 12, chars, 0);
+    assertEquals(MIXED.substring(0, 12), new String(chars, 0, n));
+  }
+
+  @Test
+  public void testMalformedBytesDecodeLikeTheJdk() {
+    byte[][] malformed = {
+      {(byte) 0x80},
+      {'a', (byte) 0xc3},
+      {(byte) 0xc0, (byte) 0xaf},
+      {(byte) 0xe0, (byte) 0x80, (byte) 0xaf},
+      {(byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+      {(byte) 0xe2, (byte) 0x82, 'a'},
+      {(byte) 0xff, 'b'}
+    };
+    for (int i = 0; i < malformed.length; i++) {
+      byte[] b = malformed[i];
+      assertEquals(new String(b, StandardCharsets.UTF_8), 
+          BytesUtf8.decode(new BytesView(b, 0, b.length)), "case " + i);
+    }
+  }
+
+  @Test
+  public void testEncodedSurrogatesDecodeEachByte() {
+    //the JDK replaces the whole sequence, each byte is a maximal subpart in Unicode
+    byte[] b = {(byte) 0xed, (byte) 0xa0, (byte) 0x80, 'a'};
+    assertEquals("\ufffd\ufffd\ufffda", BytesUtf8.decode(new BytesView(b, 0, b.length)));
+    byte[] low = {(byte) 0xed, (byte) 0xb9, 'A'};
+    assertEquals("\ufffd\ufffdA", BytesUtf8.decode(new BytesView(low, 0, low.length)));
+  }
+}
@@ -0,0 +1,144 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CompressedBigBytes, the BlockCodec it uses 
+ * and the checks of the AbstractBigBytes and BigBytes it compresses.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class CompressedBigBytesTest {
+
+  @Test
+  public void testBlockCodecRoundTrip() {
+    byte[] text = text(10000);
+    byte[] block = BlockCodec.compress(text, 0, text.length);
+    assertTrue(block.length < text.length / 4, "text should compress, not " + block.length);
+    byte[] raw = new byte[text.length];
+    assertEquals(text.length, BlockCodec.decompress(block, 0, block.length, raw, 0));
+    assertArrayEquals(text, raw);
+  }
+
+  @Test
+  public void testCompressibleLeaves() {
+    byte[] text = text(100000);
+    BigBytesMutant mutant = new BigBytesMutant(4, 4096);
+    mutant.add(text, 0, text.length);
+    CompressedBigBytes compressed = new CompressedBigBytes(mutant, 2);
+    assertEquals(text.length, compressed.size());
+    assertEquals(mutant.getLeafCount(), compressed.getLeafCount());
+    assertTrue(compressed.getCompressedSize() < text.length / 4);
+
+    byte[] copy = new byte[text.length];
+    compressed.copyTo(0, copy, 0, copy.length);
+    assertArrayEquals(text, copy);
+    //random access across leaves, with a cache smaller than the leaf count
+    for (int i = 0; i < text.length; i += 997) {
+      assertEquals(text[i], compressed.get(i));
+    }
+    byte[] range = new byte[5000];
+    compressed.copyTo(4000, range, 0, range.length);
+    assertArrayEquals(Arrays.copyOfRange(text, 4000, 9000), range);
+  }
+
+  @Test
+  public void testRandomLeavesAreStoredRaw() {
+    byte[] random = random(1000000, 1);
+    BigBytesMutant mutant = new BigBytesMutant(16, 4096);
+    mutant.add(random, 0, random.length);
+    CompressedBigBytes compressed = new CompressedBigBytes(mutant);
+    assertTrue(compressed.getCompressedSize() <= compressed.size(),
+        "random leaves grew to " + compressed.getCompressedSize());
+    byte[] copy = new byte[random.length];
+    compressed.copyTo(0, copy, 0, copy.length);
+    assertArrayEquals(random, copy);
+  }
+
+  @Test
+  public void testHolesAreNotStored() {
+    BigBytesMutant mutant = new BigBytesMutant(4, 100);
+    mutant.addZeros(1000);
+    byte[] text = text(150);
+    mutant.add(text, 0, text.length);
+    CompressedBigBytes compressed = new CompressedBigBytes(mutant);
+    assertEquals(1150, compressed.size());
+    assertTrue(compressed.getCompressedSize() < 150);
+    assertEquals(0, compressed.get(0));
+    assertEquals(0, compressed.get(999));
+    assertEquals(text[0], compressed.get(1000));
+    assertEquals(1000, compressed.nextPopulated(0));
+    assertEquals(1150, compressed.nextHole(1000));
+  }
+
+  @Test
+  public void testCopyToChecksTheRange() {
+    BigBytesMutant mutant = new BigBytesMutant(4, 16);
+    mutant.add(text(100), 0, 100);
+    CompressedBigBytes compressed = new CompressedBigBytes(mutant);
+    byte[] to = new byte[10];
+    assertThrows(IndexOutOfBoundsException.class, () -> compressed.copyTo(0, to, 0, -1));
+    assertThrows(IndexOutOfBoundsException.class, () -> compressed.copyTo(95, to, 0, 10));
+    assertThrows(IndexOutOfBoundsException.class, () -> compressed.copyTo(-1, to, 0, 10));
+    compressed.copyTo(100, to, 0, 0);
+  }
+
+  @Test
+  public void testBigBytesLeafCountMessage() {
+    List<I_Bytes> leaves = new ArrayList<I_Bytes>();
+    for (int i = 0; i < 3; i++) {
+      leaves.add(new BytesView(new byte[10], 0, 10));
+    }
+    IllegalArgumentException x = assertThrows(IllegalArgumentException.class, 
+        () -> new BigBytes(4, 10, 20, leaves));
+    assertEquals(BigBytes.LEAF_COUNT_EXCEPTION_1 + 3 + BigBytes.LEAF_COUNT_EXCEPTION_2 + 2,
+        x.getMessage());
+  }
+
+  static byte[] random(int size, long seed) {
+    byte[] r = new byte[size];
+    long x = seed;
+    for (int i = 0; i < size; i++) {
+      x = x * 6364136223846793005L + 1442695040888963407L;
+      r[i] = (byte) (x >>> 56);
+    }
+    return r;
+  }
+
+  static byte[] text(int size) {
+    byte[] words = "the quick brown fox jumps over the lazy dog ".getBytes();
+    byte[] r = new byte[size];
+    for (int i = 0; i < size; i++) {
+      r[i] = words[(i * 7 / 5) % words.length];
+    }
+    return r;
+  }
+}
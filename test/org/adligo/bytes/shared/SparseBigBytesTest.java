@@ -0,0 +1,141 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the holes in sparse BigBytes and BigBytesMutants.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class SparseBigBytesTest {
+
+  @Test
+  public void testHolesReadAsZeros() {
+    BigBytesMutant mutant = new BigBytesMutant(4, 10);
+    mutant.add(new byte[] {1, 2, 3}, 0, 3);
+    mutant.addZeros(1000000);
+    mutant.add((byte) 4);
+    assertEquals(1000004, mutant.size());
+    assertEquals(3, mutant.get(2));
+    assertEquals(0, mutant.get(3));
+    assertEquals(0, mutant.get(500000));
+    assertEquals(4, mutant.get(1000003));
+    //the hole leaves share one leaf of zeros
+    assertSame(mutant.getLeaf(1), mutant.getLeaf(50000));
+    byte[] range = new byte[8];
+    mutant.copyTo(0, range, 0, 8);
+    assertArrayEquals(new byte[] {1, 2, 3, 0, 0, 0, 0, 0}, range);
+  }
+
+  @Test
+  public void testSetMaterializesOneLeaf() {
+    BigBytesMutant mutant = new BigBytesMutant(4, 10);
+    mutant.addZeros(1000);
+    assertEquals(-1, mutant.nextPopulated(0));
+    mutant.set(555, (byte) 5);
+    assertEquals(5, mutant.get(555));
+    assertEquals(0, mutant.get(554));
+    assertEquals(550, mutant.nextPopulated(0));
+    assertEquals(560, mutant.nextHole(550));
+    assertEquals(0, mutant.nextHole(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> mutant.set(1000, (byte) 1));
+    assertThrows(IllegalArgumentException.class, () -> mutant.addZeros(-1L));
+    assertEquals(1000, mutant.size());
+  }
+
+  @Test
+  public void testLeafIndexesAboveIntegerMax() {
+    BigBytesMutant mutant = new BigBytesMutant(4, 1);
+    mutant.add((byte) 1);
+    mutant.addZeros(1L << 33);
+    long from = (1L << 31) + 5;
+    assertEquals(-1, mutant.nextPopulated(from));
+    assertEquals(from, mutant.nextHole(from));
+    assertEquals(0, mutant.nextPopulated(0));
+    assertEquals(1, mutant.nextHole(0));
+    assertEquals(0, mutant.get(from));
+    List<Long> ranges = new ArrayList<Long>();
+    mutant.forEachPopulatedRange((s, e) -> {
+      ranges.add(s);
+      ranges.add(e);
+    });
+    assertEquals(Arrays.asList(0L, 1L), ranges);
+  }
+
+  @Test
+  public void testForEachPopulatedRange() {
+    BigBytesMutant mutant = new BigBytesMutant(2, 4);
+    mutant.add(new byte[6], 0, 6);
+    mutant.addZeros(10);
+    mutant.add(new byte[9], 0, 9);
+    mutant.addZeros(40);
+    mutant.set(62, (byte) 1);
+    List<Long> ranges = new ArrayList<Long>();
+    mutant.forEachPopulatedRange((s, e) -> {
+      ranges.add(s);
+      ranges.add(e);
+    });
+    //the partial leaves at 4 and 24 are extended with zeros
+    assertEquals(Arrays.asList(0L, 8L, 16L, 28L, 60L, 64L), ranges);
+    assertEquals(0, mutant.get(7));
+  }
+
+  @Test
+  public void testSparseBigBytes() {
+    List<I_Bytes> leaves = new ArrayList<I_Bytes>();
+    leaves.add(null);
+    leaves.add(BytesRopeTest.view(1, 2, 3, 4));
+    leaves.add(null);
+    BigBytes bytes = new BigBytes(2, 4, 30, leaves);
+    assertEquals(30, bytes.size());
+    assertEquals(8, bytes.getLeafCount());
+    assertEquals(0, bytes.get(0));
+    assertEquals(1, bytes.get(4));
+    assertEquals(0, bytes.get(29));
+    assertEquals(2, bytes.getLeaf(7).size());
+    List<Long> ranges = new ArrayList<Long>();
+    bytes.forEachPopulatedRange((s, e) -> {
+      ranges.add(s);
+      ranges.add(e);
+    });
+    assertEquals(Arrays.asList(4L, 8L), ranges);
+    assertTrue(bytes.nextPopulated(8) == -1);
+  }
+
+  @Test
+  public void testSparseBigBytesChecksTheLeaves() {
+    List<I_Bytes> leaves = new ArrayList<I_Bytes>();
+    leaves.add(BytesRopeTest.view(1, 2, 3));
+    assertThrows(IllegalArgumentException.class, () -> new BigBytes(2, 4, 30, leaves));
+    assertThrows(IllegalArgumentException.class, () -> new BigBytes(2, 4, 0, leaves));
+  }
+}
@@ -0,0 +1,187 @@
+package org.adligo.bytes.shared;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.adligo.i_bytes.shared.I_Bytes;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the BytesTransforms and the lazy TransformedBytes and 
+ * TransformedBigBytes views, against transforming copies one step at a time.
+ * 
+ * @author scott
+ *
+ * <pre><code>
+ * ---------------- Apache ICENSE-2.0 --------------------------
+ *
+ * Copyright 2022 Adligo Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </code><pre>
+ */
+public class TransformedBytesTest {
+  private static final byte[] TABLE = table();
+
+  @Test
+  public void testSingleTransforms() {
+    byte[] input = CompressedBigBytesTest.random(1000, 12);
+    assertTransform(input, BytesTransform.IDENTITY, input);
+    assertTransform(input, BytesTransform.REVERSE_ORDER, reverseOrder(input));
+    assertTransform(input, BytesTransform.REVERSE_BITS, reverseBits(input));
+    assertTransform(input, BytesTransform.xor((byte) 3, (byte) 5, (byte) 7), 
+        xor(input, 3, 5, 7));
+    assertTransform(input, BytesTransform.xor((byte) 9), xor(input, 9));
+    assertTransform(input, BytesTransform.table(TABLE), table(input));
+    assertEquals((byte) 0x80, BytesTransform.REVERSE_BITS.apply((byte) 1, 0, 1));
+  }
+
+  @Test
+  public void testComposedTransforms() {
+    byte[] input = CompressedBigBytesTest.random(10000, 13);
+    BytesTransform t = BytesTransform.xor((byte) 1, (byte) 2)
+        .andThen(BytesTransform.REVERSE_ORDER)
+        .andThen(BytesTransform.xor((byte) 4, (byte) 8, (byte) 16))
+        .andThen(BytesTransform.REVERSE_BITS)
+        .andThen(BytesTransform.table(TABLE))
+        .andThen(BytesTransform.xor((byte) 5, (byte) 6));
+    byte[] expected = xor(table(reverseBits(xor(reverseOrder(xor(input, 1, 2)), 4, 8, 16))),
+        5, 6);
+    assertTransform(input, t, expected);
+    assertTrue(t.isReversed());
+    //the byte to byte stages are folded into one table
+    assertEquals(4, t.getStages());
+
+    BytesTransform twice = BytesTransform.REVERSE_ORDER.andThen(BytesTransform.REVERSE_ORDER);
+    assertTransform(input, twice, input);
+    assertEquals(1, BytesTransform.xor((byte) 1, (byte) 2).andThen(
+        BytesTransform.xor((byte) 3, (byte) 4)).getStages());
+  }
+
+  @Test
+  public void testNestedViewsAreFolded() {
+    byte[] input = CompressedBigBytesTest.random(100, 14);
+    I_Bytes source = new BytesView(input, 0, input.length);
+    TransformedBytes inner = new TransformedBytes(source, BytesTransform.xor((byte) 1, (byte) 2));
+    TransformedBytes outer = new TransformedBytes(inner, BytesTransform.REVERSE_ORDER);
+    assertArrayEquals(reverseOrder(xor(input, 1, 2)), BytesRopeTest.copy(outer));
+    assertEquals(1, outer.getTransform().getStages());
+    //the source is NOT copied, so changes show through the view
+    input[99] = (byte) (input[99] ^ 0x40);
+    assertEquals(inner.get(99), outer.get(0));
+  }
+
+  @Test
+  public void testTransformedBigBytes() {
+    byte[] input = CompressedBigBytesTest.random(10007, 15);
+    BigBytesMutant big = new BigBytesMutant(4, 100);
+    big.add(input, 0, input.length);
+    BytesTransform t = BytesTransform.REVERSE_ORDER.andThen(
+        BytesTransform.xor((byte) 1, (byte) 2, (byte) 3));
+    byte[] expected = xor(reverseOrder(input), 1, 2, 3);
+    TransformedBigBytes view = new TransformedBigBytes(big, t);
+    assertEquals(input.length, view.size());
+    byte[] copy = new byte[input.length];
+    view.copyTo(0, copy, 0, copy.length);
+    assertArrayEquals(expected, copy);
+    for (int i = 0; i < input.length; i += 101) {
+      assertEquals(expected[i], view.get(i));
+    }
+    //the leaves are transformed views too
+    BytesMutant leaves = new BytesMutant();
+    for (long i = 0; i < view.getLeafCount(); i++) {
+      leaves.add(view.getLeaf(i));
+    }
+    assertArrayEquals(expected, BytesRopeTest.copy(leaves));
+    byte[] range = new byte[333];
+    view.copyTo(5000, range, 0, range.length);
+    assertArrayEquals(Arrays.copyOfRange(expected, 5000, 5333), range);
+    assertThrows(IndexOutOfBoundsException.class, () -> view.copyTo(0, range, 0, -1));
+
+    TransformedBigBytes back = new TransformedBigBytes(view, BytesTransform.xor((byte) 1, 
+        (byte) 2, (byte) 3).andThen(BytesTransform.REVERSE_ORDER));
+    back.copyTo(0, copy, 0, copy.length);
+    assertArrayEquals(input, copy);
+  }
+
+  @Test
+  public void testChecks() {
+    assertThrows(IllegalArgumentException.class, () -> BytesTransform.xor());
+    assertThrows(IllegalArgumentException.class, () -> BytesTransform.table(new byte[255]));
+    TransformedBytes view = new TransformedBytes(BytesRopeTest.view(1, 2), 
+        BytesTransform.REVERSE_ORDER);
+    assertThrows(ArrayIndexOutOfBoundsException.class, () -> view.get(2));
+    assertThrows(ArrayIndexOutOfBoundsException.class, 
+        () -> view.copyTo(1, new byte[2], 0, 2));
+    assertSame(BytesTransform.REVERSE_ORDER, view.getTransform());
+  }
+
+  private static void assertTransform(byte[] input, BytesTransform transform, 
+      byte[] expected) {
+    TransformedBytes view = new TransformedBytes(new BytesView(input, 0, input.length),
+        transform);
+    assertArrayEquals(expected, BytesRopeTest.copy(view));
+    for (int i = 0; i < input.length; i++) {
+      assertEquals(expected[i], view.get(i));
+    }
+    byte[] range = new byte[input.length / 3];
+    view.copyTo(input.length / 2, range, 0, range.length);
+    assertArrayEquals(Arrays.copyOfRange(expected, input.length / 2, 
+        input.length / 2 + range.length), range);
+  }
+
+  private static byte[] reverseBits(byte[] bytes) {
+    byte[] r = new byte[bytes.length];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = (byte) (Integer.reverse(bytes[i]) >>> 24);
+    }
+    return r;
+  }
+
+  private static byte[] reverseOrder(byte[] bytes) {
+    byte[] r = new byte[bytes.length];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = bytes[bytes.length - 1 - i];
+    }
+    return r;
+  }
+
+  private static byte[] table() {
+    byte[] r = new byte[256];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = (byte) (i * 167 + 13);
+    }
+    return r;
+  }
+
+  private static byte[] table(byte[] bytes) {
+    byte[] r = new byte[bytes.length];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = TABLE[bytes[i] & 0xff];
+    }
+    return r;
+  }
+
+  private static byte[] xor(byte[] bytes, int... key) {
+    byte[] r = new byte[bytes.length];
+    for (int i = 0; i < r.length; i++) {
+      r[i] = (byte) (bytes[i] ^ key[i % key.length]);
+    }
+    return r;
+  }
+}